@@ -0,0 +1,58 @@
+package taxi.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.service.CarService;
+import taxi.service.DriverService;
+
+/**
+ * The path of {@code AddDriverToCarController}: load the car and the driver, assign the
+ * driver and take it off again so that the fleet stays the same between invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CarAssignmentBenchmark {
+    private static final int DRIVERS_PER_CAR = 3;
+    @Param({"100", "1000", "10000"})
+    private int fleetSize;
+    private CarService carService;
+    private DriverService driverService;
+    private Long spareDriverId;
+
+    @Setup
+    public void setUp() {
+        EmbeddedDatabase.start(fleetSize, fleetSize, DRIVERS_PER_CAR);
+        Injector injector = Injector.getInstance("taxi");
+        carService = (CarService) injector.getInstance(CarService.class);
+        driverService = (DriverService) injector.getInstance(DriverService.class);
+        spareDriverId = driverService.create(
+                new Driver("Spare", "SPARE", "spare", "spare")).getId();
+    }
+
+    @Benchmark
+    public Car assignAndUnassignDriver() {
+        Car car = carService.get(ThreadLocalRandom.current().nextLong(fleetSize) + 1);
+        Driver driver = driverService.get(spareDriverId);
+        carService.addDriverToCar(driver, car);
+        carService.removeDriverFromCar(driver, car);
+        return car;
+    }
+}
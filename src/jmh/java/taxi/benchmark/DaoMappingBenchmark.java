@@ -0,0 +1,74 @@
+package taxi.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import taxi.dao.CarDao;
+import taxi.dao.DriverDao;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+
+/**
+ * Reads whole tables through the DAOs, so the score is dominated by the mapping of
+ * result set rows into cars and drivers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoMappingBenchmark {
+    private static final int DRIVERS_PER_CAR = 3;
+    private static final int PAGE_SIZE = 50;
+    @Param({"100", "1000", "10000"})
+    private int fleetSize;
+    private CarDao carDao;
+    private DriverDao driverDao;
+
+    @Setup
+    public void setUp() {
+        EmbeddedDatabase.start(fleetSize, fleetSize, DRIVERS_PER_CAR);
+        Injector injector = Injector.getInstance("taxi");
+        carDao = (CarDao) injector.getInstance(CarDao.class);
+        driverDao = (DriverDao) injector.getInstance(DriverDao.class);
+    }
+
+    @Benchmark
+    public List<Car> getAllCars() {
+        return carDao.getAll();
+    }
+
+    @Benchmark
+    public List<Car> getCarPage() {
+        return carDao.getPage(ThreadLocalRandom.current().nextLong(fleetSize), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public void forEachCar(Blackhole blackhole) {
+        carDao.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public List<Car> getAllCarsByDriver() {
+        return carDao.getAllByDriver(ThreadLocalRandom.current().nextLong(fleetSize) + 1);
+    }
+
+    @Benchmark
+    public List<Driver> getAllDrivers() {
+        return driverDao.getAll();
+    }
+}
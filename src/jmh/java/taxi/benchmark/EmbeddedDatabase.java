@@ -0,0 +1,137 @@
+package taxi.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * In-memory H2 database in MySQL mode, created from {@code init_db.sql} and filled with a
+ * fleet of the requested size. The application is pointed at it through the same system
+ * properties that override {@code application.properties}, so this has to run before
+ * anything touches {@code ConnectionUtil}.
+ */
+public class EmbeddedDatabase {
+    private static final String SCHEMA_FILE = "init_db.sql";
+    private static final String URL =
+            "jdbc:h2:mem:taxi;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String USER = "sa";
+    private static final int MANUFACTURERS_COUNT = 50;
+    private static final int BATCH_SIZE = 1000;
+    private static boolean started;
+
+    public static synchronized void start(int carsCount, int driversCount, int driversPerCar) {
+        if (started) {
+            return;
+        }
+        System.setProperty("db.driver", "org.h2.Driver");
+        System.setProperty("db.url", URL);
+        System.setProperty("db.user", USER);
+        System.setProperty("db.password", "");
+        System.setProperty("db.streaming.fetch.size", "1000");
+        try (Connection connection = DriverManager.getConnection(URL, USER, "")) {
+            createSchema(connection);
+            seed(connection, carsCount, driversCount, driversPerCar);
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Can't create the benchmark database", e);
+        }
+        started = true;
+    }
+
+    private static void createSchema(Connection connection) throws SQLException, IOException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : toH2(readSchema()).split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private static String readSchema() throws IOException {
+        try (InputStream inputStream = EmbeddedDatabase.class.getClassLoader()
+                .getResourceAsStream(SCHEMA_FILE)) {
+            if (inputStream == null) {
+                throw new IOException("Can't find " + SCHEMA_FILE + " on the classpath");
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Drops the MySQL specifics H2 doesn't understand even in MySQL mode.
+     */
+    private static String toH2(String schema) {
+        return schema
+                .replaceAll("(?m)^--.*$", "")
+                .replaceAll("(?m)^(CREATE SCHEMA|USE|SET) .*$", "")
+                .replaceAll("\\) ENGINE = [^;]*;", ");")
+                .replace("CHARACTER SET utf8 COLLATE utf8_general_ci", "")
+                .replace("USING BTREE", "")
+                .replace("BIGINT(0) UNSIGNED", "BIGINT")
+                .replace("BIT(1) NOT NULL DEFAULT b'0'", "BOOLEAN NOT NULL DEFAULT FALSE")
+                .replace("IF(`is_deleted` = b'1', NULL, `login`)",
+                        "CASE WHEN `is_deleted` THEN NULL ELSE `login` END")
+                .replace(") STORED", ")");
+    }
+
+    private static void seed(Connection connection, int carsCount, int driversCount,
+                             int driversPerCar) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO manufacturers (name, country) VALUES (?, ?)")) {
+            for (int i = 1; i <= MANUFACTURERS_COUNT; i++) {
+                statement.setString(1, "Manufacturer " + i);
+                statement.setString(2, "Country " + i % 10);
+                addToBatch(statement, i);
+            }
+            statement.executeBatch();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO drivers (name, license_number, login, password) "
+                        + "VALUES (?, ?, ?, ?)")) {
+            for (int i = 1; i <= driversCount; i++) {
+                statement.setString(1, "Driver " + i);
+                statement.setString(2, String.format("LN%08d", i));
+                statement.setString(3, "driver" + i);
+                statement.setString(4, "password" + i);
+                addToBatch(statement, i);
+            }
+            statement.executeBatch();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO cars (model, manufacturer_id) VALUES (?, ?)")) {
+            for (int i = 1; i <= carsCount; i++) {
+                statement.setString(1, "Model " + i);
+                statement.setLong(2, i % MANUFACTURERS_COUNT + 1);
+                addToBatch(statement, i);
+            }
+            statement.executeBatch();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO cars_drivers (car_id, driver_id) VALUES (?, ?)")) {
+            int links = 0;
+            for (int carId = 1; carId <= carsCount; carId++) {
+                for (int j = 0; j < Math.min(driversPerCar, driversCount); j++) {
+                    statement.setLong(1, carId);
+                    statement.setLong(2, ((long) carId * driversPerCar + j) % driversCount + 1);
+                    addToBatch(statement, ++links);
+                }
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    private static void addToBatch(PreparedStatement statement, int count) throws SQLException {
+        statement.addBatch();
+        if (count % BATCH_SIZE == 0) {
+            statement.executeBatch();
+        }
+    }
+}
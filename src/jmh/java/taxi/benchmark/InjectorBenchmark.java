@@ -0,0 +1,50 @@
+package taxi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import taxi.lib.Injector;
+import taxi.service.CarService;
+import taxi.service.DriverService;
+
+/**
+ * Cost of resolving services the way controllers do it on construction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InjectorBenchmark {
+    private Injector injector;
+
+    @Setup
+    public void setUp() {
+        EmbeddedDatabase.start(0, 0, 0);
+        injector = Injector.getInstance("taxi");
+    }
+
+    @Benchmark
+    public Injector getInjector() {
+        return Injector.getInstance("taxi");
+    }
+
+    @Benchmark
+    public Object getCarService() {
+        return injector.getInstance(CarService.class);
+    }
+
+    @Benchmark
+    public Object getDriverService() {
+        return injector.getInstance(DriverService.class);
+    }
+}
@@ -0,0 +1,49 @@
+package taxi.cli;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import taxi.event.EntityType;
+import taxi.lib.Injector;
+import taxi.model.ImportReport;
+import taxi.service.ImportService;
+import taxi.util.ConnectionUtil;
+
+/**
+ * Imports a CSV file from the command line with the same service as the import API:
+ * {@code ImportCli <cars|drivers|manufacturers> <file.csv>}. Exits with 1 when some rows
+ * weren't imported and with 2 when the import couldn't start at all.
+ */
+public class ImportCli {
+    private static final Map<String, EntityType> TYPES = Map.of(
+            "cars", EntityType.CAR,
+            "drivers", EntityType.DRIVER,
+            "manufacturers", EntityType.MANUFACTURER);
+
+    public static void main(String[] args) {
+        if (args.length != 2 || !TYPES.containsKey(args[0])) {
+            System.err.println("Usage: ImportCli <cars|drivers|manufacturers> <file.csv>");
+            System.exit(2);
+        }
+        ImportService importService = (ImportService) Injector.getInstance("taxi")
+                .getInstance(ImportService.class);
+        int status;
+        try (Reader csv = Files.newBufferedReader(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+            ImportReport report = importService.importCsv(TYPES.get(args[0]), csv);
+            System.out.println(report);
+            for (ImportReport.RowError error : report.getErrors()) {
+                System.out.println(error);
+            }
+            status = report.getRowsFailed() == 0 ? 0 : 1;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Can't import " + args[1] + ": " + e.getMessage());
+            status = 2;
+        } finally {
+            ConnectionUtil.shutdown();
+        }
+        System.exit(status);
+    }
+}
@@ -0,0 +1,387 @@
+package taxi.controller;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.util.ApplicationProperties;
+import taxi.util.ConnectionPool;
+import taxi.util.DaoExecutor;
+
+/**
+ * Moves the database work of a request to the {@link DaoExecutor} so that the container
+ * thread is free while it runs. The loader runs on the executor and leaves its results in
+ * request attributes; the request is then dispatched back to the same servlet, whose
+ * renderer writes the response on a container thread as usual. A request that finds the
+ * executor full, or whose loader hasn't started within {@code async.request.timeout.ms},
+ * is answered with 503 Service Unavailable and a {@code Retry-After} header. A loader that
+ * has started may still commit its writes, so when it outlives the timeout the request is
+ * answered with 504 instead, which clients don't retry on their own. The loader sees the
+ * request through a view that keeps its attributes apart until it finishes and refuses
+ * any access once the request has been answered. Without async support everything runs
+ * in place.
+ */
+public class AsyncRequests {
+    /**
+     * Request attribute that may hold a {@link LongAdder}, to which the connections
+     * borrowed by the request's work on the executor are added.
+     */
+    public static final String CONNECTIONS_ATTRIBUTE = "taxi.async.connections";
+    private static final Logger logger = LogManager.getLogger(AsyncRequests.class);
+    private static final long TIMEOUT_MILLIS =
+            ApplicationProperties.getLong("async.request.timeout.ms", 30000);
+    private static final String FAILURE_ATTRIBUTE = "taxi.async.failure";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    public static void execute(HttpServletRequest req, HttpServletResponse resp,
+                               Loader loader, Renderer renderer)
+            throws ServletException, IOException {
+        if (req.getDispatcherType() == DispatcherType.ASYNC) {
+            rethrowFailure(req);
+            renderer.render(req, resp);
+            return;
+        }
+        if (!req.isAsyncSupported()) {
+            loader.load(req);
+            renderer.render(req, resp);
+            return;
+        }
+        AsyncContext asyncContext = req.startAsync();
+        asyncContext.setTimeout(TIMEOUT_MILLIS);
+        TaskState state = new TaskState();
+        LoaderRequest loaderRequest = new LoaderRequest(req, state);
+        LongAdder connections = (LongAdder) req.getAttribute(CONNECTIONS_ATTRIBUTE);
+        asyncContext.addListener(new TimeoutListener(state));
+        try {
+            state.setFuture(DaoExecutor.submit(() -> {
+                if (!state.start()) {
+                    return;
+                }
+                long borrowed = ConnectionPool.getBorrowedByCurrentThread();
+                Exception failure = null;
+                try {
+                    loader.load(loaderRequest);
+                } catch (Exception e) {
+                    failure = e;
+                } finally {
+                    countConnections(connections, borrowed);
+                }
+                final Exception loaderFailure = failure;
+                state.finish(() -> {
+                    loaderRequest.copyAttributesTo(req);
+                    if (loaderFailure != null) {
+                        req.setAttribute(FAILURE_ATTRIBUTE, loaderFailure);
+                    }
+                    asyncContext.dispatch();
+                });
+            }));
+        } catch (RejectedExecutionException e) {
+            state.finish(() -> { });
+            rejectBusy(resp);
+            asyncContext.complete();
+        }
+    }
+
+    /**
+     * Runs the writer on the executor and completes the request when it returns. Meant for
+     * responses streamed straight from a DAO cursor, which may take longer than the
+     * timeout; the timeout only applies to the wait for the executor.
+     */
+    public static void stream(HttpServletRequest req, HttpServletResponse resp,
+                              Renderer writer) throws ServletException, IOException {
+        if (!req.isAsyncSupported()) {
+            writer.render(req, resp);
+            return;
+        }
+        AsyncContext asyncContext = req.startAsync();
+        asyncContext.setTimeout(0);
+        long submittedAt = System.nanoTime();
+        LongAdder connections = (LongAdder) req.getAttribute(CONNECTIONS_ATTRIBUTE);
+        try {
+            DaoExecutor.submit(() -> {
+                long borrowed = ConnectionPool.getBorrowedByCurrentThread();
+                try {
+                    if (System.nanoTime() - submittedAt
+                            > TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS)) {
+                        rejectBusy(resp);
+                    } else {
+                        writer.render(req, resp);
+                    }
+                } catch (Exception e) {
+                    logger.error("Can't stream a response to {}", req.getRequestURI(), e);
+                    sendServerError(resp);
+                } finally {
+                    countConnections(connections, borrowed);
+                    asyncContext.complete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectBusy(resp);
+            asyncContext.complete();
+        }
+    }
+
+    private static void countConnections(LongAdder connections, long borrowedBefore) {
+        if (connections != null) {
+            connections.add(ConnectionPool.getBorrowedByCurrentThread() - borrowedBefore);
+        }
+    }
+
+    private static void rethrowFailure(HttpServletRequest req)
+            throws ServletException, IOException {
+        Exception failure = (Exception) req.getAttribute(FAILURE_ATTRIBUTE);
+        if (failure == null) {
+            return;
+        }
+        req.removeAttribute(FAILURE_ATTRIBUTE);
+        if (failure instanceof ServletException) {
+            throw (ServletException) failure;
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        throw new ServletException(failure);
+    }
+
+    private static void rejectBusy(HttpServletResponse resp) throws IOException {
+        if (!resp.isCommitted()) {
+            resp.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+            resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                    "The server is busy, please try again");
+        }
+    }
+
+    private static void rejectTimedOut(HttpServletResponse resp) throws IOException {
+        if (!resp.isCommitted()) {
+            resp.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT,
+                    "The request took too long, its changes may or may not have been saved");
+        }
+    }
+
+    private static void sendServerError(HttpServletResponse resp) {
+        try {
+            if (!resp.isCommitted()) {
+                resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+        } catch (IOException e) {
+            logger.debug("Can't send an error, the client is gone", e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        void load(HttpServletRequest req) throws ServletException, IOException;
+    }
+
+    @FunctionalInterface
+    public interface Renderer {
+        void render(HttpServletRequest req, HttpServletResponse resp)
+                throws ServletException, IOException;
+    }
+
+    /**
+     * Lifecycle of a loader: queued on the executor, running, then finished, either by
+     * its own dispatch or by the timeout. Every step, and every access of the loader to
+     * the request, happens under the lock of this object.
+     */
+    private static class TaskState {
+        private static final int QUEUED = 0;
+        private static final int RUNNING = 1;
+        private static final int FINISHED = 2;
+        private int state = QUEUED;
+        private Future<?> future;
+
+        synchronized void setFuture(Future<?> future) {
+            this.future = future;
+        }
+
+        synchronized boolean start() {
+            if (state != QUEUED) {
+                return false;
+            }
+            state = RUNNING;
+            return true;
+        }
+
+        /**
+         * Runs the action if the task hasn't finished yet and returns the state the task
+         * was in.
+         */
+        synchronized int finish(Runnable action) {
+            int previous = state;
+            if (previous != FINISHED) {
+                state = FINISHED;
+                action.run();
+            }
+            return previous;
+        }
+
+        synchronized Future<?> getFuture() {
+            return future;
+        }
+
+        void checkNotFinished() {
+            if (state == FINISHED) {
+                throw new IllegalStateException("The request has already been answered");
+            }
+        }
+    }
+
+    /**
+     * The request as the loader sees it. Attributes are kept here until the loader has
+     * finished; everything else is read from the request only while it hasn't been
+     * answered.
+     */
+    private static class LoaderRequest extends HttpServletRequestWrapper {
+        private final TaskState state;
+        private final Map<String, Object> attributes = new HashMap<>();
+
+        LoaderRequest(HttpServletRequest req, TaskState state) {
+            super(req);
+            this.state = state;
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            if (attributes.containsKey(name)) {
+                return attributes.get(name);
+            }
+            synchronized (state) {
+                state.checkNotFinished();
+                return super.getAttribute(name);
+            }
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            attributes.put(name, value);
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            attributes.put(name, null);
+        }
+
+        @Override
+        public String getParameter(String name) {
+            synchronized (state) {
+                state.checkNotFinished();
+                return super.getParameter(name);
+            }
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            synchronized (state) {
+                state.checkNotFinished();
+                return super.getParameterValues(name);
+            }
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            synchronized (state) {
+                state.checkNotFinished();
+                return new HashMap<>(super.getParameterMap());
+            }
+        }
+
+        @Override
+        public String getContextPath() {
+            synchronized (state) {
+                state.checkNotFinished();
+                return super.getContextPath();
+            }
+        }
+
+        @Override
+        public String getHeader(String name) {
+            synchronized (state) {
+                state.checkNotFinished();
+                return super.getHeader(name);
+            }
+        }
+
+        @Override
+        public HttpSession getSession(boolean create) {
+            synchronized (state) {
+                state.checkNotFinished();
+                return super.getSession(create);
+            }
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return getSession(true);
+        }
+
+        void copyAttributesTo(HttpServletRequest req) {
+            for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+                if (attribute.getValue() == null) {
+                    req.removeAttribute(attribute.getKey());
+                } else {
+                    req.setAttribute(attribute.getKey(), attribute.getValue());
+                }
+            }
+        }
+    }
+
+    private static class TimeoutListener implements AsyncListener {
+        private final TaskState state;
+
+        TimeoutListener(TaskState state) {
+            this.state = state;
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) throws IOException {
+            HttpServletResponse resp = (HttpServletResponse) event.getSuppliedResponse();
+            int previous = state.finish(() -> { });
+            if (previous == TaskState.FINISHED) {
+                return;
+            }
+            if (previous == TaskState.QUEUED) {
+                Future<?> future = state.getFuture();
+                if (future != null) {
+                    future.cancel(false);
+                }
+                rejectBusy(resp);
+            } else {
+                rejectTimedOut(resp);
+            }
+            event.getAsyncContext().complete();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // nothing to clean up
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // the container completes the request itself
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // the dispatch back to the servlet doesn't start async processing again
+        }
+    }
+}
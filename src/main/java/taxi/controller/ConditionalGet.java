@@ -0,0 +1,171 @@
+package taxi.controller;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import taxi.event.EntityType;
+import taxi.event.EntityVersions;
+import taxi.util.ApplicationProperties;
+import taxi.util.ExpiringCache;
+
+/**
+ * Conditional GET for pages that show nothing but the listed entity types. The ETag and
+ * Last-Modified headers come from {@link EntityVersions}, so an unchanged page is
+ * answered with 304 Not Modified before the database is queried. Rendered pages can also
+ * be cached under their URL and version, so other clients get them without a query.
+ * Versions only follow the changes made through this node. Requests dispatched back
+ * after asynchronous processing were already checked and are never answered here.
+ */
+public class ConditionalGet {
+    private static final String TAG_ATTRIBUTE = "taxi.conditionalGet.tag";
+    private static final boolean PAGE_CACHE_ENABLED =
+            ApplicationProperties.getBoolean("http.page.cache.enabled", true);
+    private static final ExpiringCache<String, RenderedPage> pages = new ExpiringCache<>(
+            "pages",
+            ApplicationProperties.getInt("http.page.cache.max.size", 100),
+            ApplicationProperties.getLong("http.page.cache.ttl.ms", 60000));
+
+    /**
+     * Sets the validators of the page and returns true when the response is already
+     * complete, either with 304 Not Modified or with a cached rendering of the page.
+     */
+    public static boolean isUnchanged(HttpServletRequest req, HttpServletResponse resp,
+                                      EntityType... types) throws IOException {
+        if (req.getDispatcherType() == DispatcherType.ASYNC) {
+            return false;
+        }
+        if (isNotModified(req, resp, types)) {
+            return true;
+        }
+        String tag = (String) req.getAttribute(TAG_ATTRIBUTE);
+        if (PAGE_CACHE_ENABLED) {
+            RenderedPage page = pages.get(cacheKey(req, tag), key -> null);
+            if (page != null) {
+                resp.setContentType(page.contentType);
+                resp.getWriter().write(page.body);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets the validators of the response and answers 304 Not Modified when the client
+     * already has the current version.
+     */
+    public static boolean isNotModified(HttpServletRequest req, HttpServletResponse resp,
+                                        EntityType... types) {
+        if (req.getDispatcherType() == DispatcherType.ASYNC) {
+            return false;
+        }
+        long lastModified = EntityVersions.getLastModified(types);
+        String tag = EntityVersions.getTag(types);
+        String etag = "W/\"" + tag + '"';
+        resp.setHeader("ETag", etag);
+        resp.setDateHeader("Last-Modified", lastModified);
+        resp.setHeader("Cache-Control", "private, no-cache");
+        if (matches(req.getHeader("If-None-Match"), etag)
+                || isNotModifiedSince(req, lastModified)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        req.setAttribute(TAG_ATTRIBUTE, tag);
+        return false;
+    }
+
+    /**
+     * Forwards to the view and keeps the rendered page for later requests of the same
+     * version.
+     */
+    public static void render(HttpServletRequest req, HttpServletResponse resp, String view)
+            throws ServletException, IOException {
+        String tag = (String) req.getAttribute(TAG_ATTRIBUTE);
+        if (!PAGE_CACHE_ENABLED || tag == null) {
+            req.getRequestDispatcher(view).forward(req, resp);
+            return;
+        }
+        CapturingResponse capturingResponse = new CapturingResponse(resp);
+        req.getRequestDispatcher(view).forward(req, capturingResponse);
+        if (!capturingResponse.isCaptured()) {
+            return;
+        }
+        String body = capturingResponse.getBody();
+        if (capturingResponse.getStatus() == HttpServletResponse.SC_OK) {
+            RenderedPage page = new RenderedPage(capturingResponse.getContentType(), body);
+            pages.get(cacheKey(req, tag), key -> page);
+        }
+        resp.getWriter().write(body);
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNotModifiedSince(HttpServletRequest req, long lastModified) {
+        if (req.getHeader("If-None-Match") != null) {
+            return false;
+        }
+        try {
+            long ifModifiedSince = req.getDateHeader("If-Modified-Since");
+            return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String cacheKey(HttpServletRequest req, String tag) {
+        String query = req.getQueryString();
+        return tag + ' ' + req.getRequestURI() + (query == null ? "" : "?" + query);
+    }
+
+    private static class RenderedPage {
+        private final String contentType;
+        private final String body;
+
+        RenderedPage(String contentType, String body) {
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+
+    private static class CapturingResponse extends HttpServletResponseWrapper {
+        private final CharArrayWriter buffer = new CharArrayWriter();
+        private PrintWriter writer;
+
+        CapturingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(buffer);
+            }
+            return writer;
+        }
+
+        boolean isCaptured() {
+            return writer != null;
+        }
+
+        String getBody() {
+            writer.flush();
+            return buffer.toString();
+        }
+    }
+}
@@ -13,8 +13,14 @@ import taxi.lib.Injector;
 import taxi.model.Driver;
 import taxi.service.AuthenticationService;
 
+/**
+ * Checks the password on the {@link taxi.util.DaoExecutor} through {@link AsyncRequests},
+ * so that a burst of logins waiting for a hashing thread doesn't hold the servlet
+ * threads. The session is changed only when the response is rendered.
+ */
 public class LoginController extends HttpServlet {
     private static final Logger logger = LogManager.getLogger(LoginController.class);
+    private static final String DRIVER_ID_ATTRIBUTE = "taxi.login.driverId";
 
     private static final Injector injector = Injector.getInstance("taxi");
     private final AuthenticationService authenticationService = (AuthenticationService) injector
@@ -31,17 +37,30 @@ public class LoginController extends HttpServlet {
     public void doPost(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
         logger.debug("Method doPost was called");
+        AsyncRequests.execute(req, resp, this::authenticate, this::render);
+    }
+
+    private void authenticate(HttpServletRequest req) {
         String login = req.getParameter("login");
         String password = req.getParameter("password");
         try {
             Driver driver = authenticationService.login(login, password);
-            HttpSession session = req.getSession();
-            session.setAttribute("driver_id", driver.getId());
-            resp.sendRedirect(req.getContextPath() + "/index");
+            req.setAttribute(DRIVER_ID_ATTRIBUTE, driver.getId());
         } catch (AuthenticationException e) {
             req.setAttribute("errorMsg", e.getMessage());
-            req.getRequestDispatcher("/WEB-INF/views/login.jsp").forward(req, resp);
             logger.error("Invalid data error", e);
         }
     }
+
+    private void render(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        Long driverId = (Long) req.getAttribute(DRIVER_ID_ATTRIBUTE);
+        if (driverId == null) {
+            req.getRequestDispatcher("/WEB-INF/views/login.jsp").forward(req, resp);
+            return;
+        }
+        HttpSession session = req.getSession();
+        session.setAttribute("driver_id", driverId);
+        resp.sendRedirect(req.getContextPath() + "/index");
+    }
 }
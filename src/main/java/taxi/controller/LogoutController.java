@@ -5,17 +5,29 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.lib.Injector;
+import taxi.service.PrincipalService;
 
 public class LogoutController extends HttpServlet {
     private static final Logger logger = LogManager.getLogger(LogoutController.class);
 
+    private static final Injector injector = Injector.getInstance("taxi");
+    private final PrincipalService principalService = (PrincipalService) injector
+            .getInstance(PrincipalService.class);
+
     @Override
     public void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
         logger.debug("Method doGet was called");
-        req.getSession().invalidate();
+        HttpSession session = req.getSession();
+        Long driverId = (Long) session.getAttribute("driver_id");
+        if (driverId != null) {
+            principalService.evict(driverId);
+        }
+        session.invalidate();
         resp.sendRedirect(req.getContextPath() + "/index");
     }
 }
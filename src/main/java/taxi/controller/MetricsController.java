@@ -0,0 +1,51 @@
+package taxi.controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.metrics.MetricsRegistry;
+import taxi.util.ApplicationProperties;
+
+/**
+ * Serves the metrics to a scraper that sends {@code Authorization: Bearer} with the
+ * {@code metrics.token} property. The endpoint doesn't exist while no token is set. It
+ * needs no login, so that a scraper can reach it, but the token keeps the pool, cache and
+ * latency figures away from everyone else.
+ */
+public class MetricsController extends HttpServlet {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String BEARER = "Bearer ";
+    private static final byte[] TOKEN = ApplicationProperties.getString("metrics.token", "")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        if (TOKEN.length == 0) {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!isAuthorized(req)) {
+            resp.setHeader("WWW-Authenticate", "Bearer");
+            resp.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        resp.setContentType(CONTENT_TYPE);
+        resp.setHeader("Cache-Control", "no-store");
+        resp.getWriter().write(MetricsRegistry.scrape());
+    }
+
+    private boolean isAuthorized(HttpServletRequest req) {
+        String authorization = req.getHeader("Authorization");
+        if (authorization == null || !authorization.startsWith(BEARER)) {
+            return false;
+        }
+        byte[] token = authorization.substring(BEARER.length()).trim()
+                .getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(TOKEN, token);
+    }
+}
@@ -0,0 +1,52 @@
+package taxi.controller;
+
+import java.util.List;
+import java.util.function.Function;
+import javax.servlet.http.HttpServletRequest;
+
+public class Pagination {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final String AFTER_PARAMETER = "after";
+    private static final String LIMIT_PARAMETER = "limit";
+
+    public static Long getAfterId(HttpServletRequest req) {
+        String after = req.getParameter(AFTER_PARAMETER);
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(after);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static int getLimit(HttpServletRequest req) {
+        String limit = req.getParameter(LIMIT_PARAMETER);
+        if (limit == null || limit.isBlank()) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        try {
+            return Math.max(1, Math.min(MAX_PAGE_SIZE, Integer.parseInt(limit)));
+        } catch (NumberFormatException e) {
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
+
+    /**
+     * Exposes the link to the next page as the {@code nextPageUrl} request attribute
+     * when the current page is full, so there may be more elements after it. The path
+     * may carry a query string of its own.
+     */
+    public static <T> void setNextPage(HttpServletRequest req, String path, List<T> page,
+                                       int limit, Function<T, Long> idExtractor) {
+        if (page.size() < limit) {
+            return;
+        }
+        Long lastId = idExtractor.apply(page.get(page.size() - 1));
+        req.setAttribute("nextPageUrl", req.getContextPath() + path
+                + (path.indexOf('?') < 0 ? "?" : "&") + AFTER_PARAMETER + "=" + lastId
+                + "&" + LIMIT_PARAMETER + "=" + limit);
+    }
+}
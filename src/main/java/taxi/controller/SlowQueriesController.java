@@ -0,0 +1,18 @@
+package taxi.controller;
+
+import java.io.IOException;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.util.SlowQueryLog;
+
+public class SlowQueriesController extends HttpServlet {
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        req.setAttribute("enabled", SlowQueryLog.isEnabled());
+        req.setAttribute("slowQueries", SlowQueryLog.getEntries());
+        req.getRequestDispatcher("/WEB-INF/views/admin/slow_queries.jsp").forward(req, resp);
+    }
+}
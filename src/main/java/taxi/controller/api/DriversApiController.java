@@ -0,0 +1,78 @@
+package taxi.controller.api;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.controller.AsyncRequests;
+import taxi.controller.ConditionalGet;
+import taxi.event.EntityType;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.service.CarService;
+import taxi.service.DriverService;
+import taxi.util.JsonWriter;
+
+public class DriversApiController extends HttpServlet {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private final DriverService driverService = (DriverService) injector
+            .getInstance(DriverService.class);
+    private final CarService carService = (CarService) injector.getInstance(CarService.class);
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        String[] segments = JsonResponses.getSegments(req);
+        boolean carsOfDriver = segments.length == 2 && segments[1].equals("cars");
+        if (segments.length > 2 || (segments.length == 2 && !carsOfDriver)) {
+            JsonResponses.sendError(resp, HttpServletResponse.SC_NOT_FOUND, "No such resource");
+            return;
+        }
+        if (carsOfDriver) {
+            if (JsonResponses.getId(req, 0) == null) {
+                JsonResponses.sendError(resp, HttpServletResponse.SC_NOT_FOUND, "No such driver");
+                return;
+            }
+            if (!ConditionalGet.isNotModified(req, resp, EntityType.CAR,
+                    EntityType.CAR_ASSIGNMENT, EntityType.DRIVER, EntityType.MANUFACTURER)) {
+                AsyncRequests.stream(req, resp, this::writeCarsOfDriver);
+            }
+            return;
+        }
+        if (!ConditionalGet.isNotModified(req, resp, EntityType.DRIVER)) {
+            AsyncRequests.stream(req, resp, this::writeDrivers);
+        }
+    }
+
+    private void writeDrivers(HttpServletRequest req, HttpServletResponse resp)
+            throws IOException {
+        if (JsonResponses.getSegments(req).length == 0) {
+            JsonResponses.writeList(req, resp, driverService, Driver::getId,
+                    JsonResponses::writeDriver);
+            return;
+        }
+        Long id = JsonResponses.getId(req, 0);
+        try {
+            Driver driver = driverService.get(id == null ? -1 : id);
+            JsonWriter json = JsonResponses.start(resp);
+            JsonResponses.writeDriver(json, driver, JsonResponses.getFields(req));
+            json.flush();
+        } catch (NoSuchElementException e) {
+            JsonResponses.sendError(resp, HttpServletResponse.SC_NOT_FOUND, e.getMessage());
+        }
+    }
+
+    private void writeCarsOfDriver(HttpServletRequest req, HttpServletResponse resp)
+            throws IOException {
+        List<Car> cars = carService.getAllByDriver(JsonResponses.getId(req, 0));
+        JsonWriter json = JsonResponses.start(resp);
+        json.beginObject().name("items").beginArray();
+        JsonResponses.writeItems(json, cars, JsonResponses.getFields(req),
+                JsonResponses::writeCar);
+        json.endArray().endObject().flush();
+    }
+}
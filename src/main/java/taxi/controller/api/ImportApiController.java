@@ -0,0 +1,89 @@
+package taxi.controller.api;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.Part;
+import taxi.controller.AsyncRequests;
+import taxi.event.EntityType;
+import taxi.lib.Injector;
+import taxi.model.ImportReport;
+import taxi.service.ImportService;
+import taxi.util.JsonWriter;
+
+/**
+ * Imports the CSV posted to {@code /api/import/cars}, {@code /drivers} or
+ * {@code /manufacturers}, either as the request body or as the {@code file} part of a
+ * multipart form, and answers with the import report.
+ */
+public class ImportApiController extends HttpServlet {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final Map<String, EntityType> TYPES = Map.of(
+            "cars", EntityType.CAR,
+            "drivers", EntityType.DRIVER,
+            "manufacturers", EntityType.MANUFACTURER);
+    private final ImportService importService =
+            (ImportService) injector.getInstance(ImportService.class);
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        String[] segments = JsonResponses.getSegments(req);
+        if (segments.length != 1 || !TYPES.containsKey(segments[0])) {
+            JsonResponses.sendError(resp, HttpServletResponse.SC_NOT_FOUND, "No such resource");
+            return;
+        }
+        AsyncRequests.stream(req, resp, this::importCsv);
+    }
+
+    private void importCsv(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        EntityType type = TYPES.get(JsonResponses.getSegments(req)[0]);
+        ImportReport report;
+        try (Reader csv = openCsv(req)) {
+            if (csv == null) {
+                JsonResponses.sendError(resp, HttpServletResponse.SC_BAD_REQUEST,
+                        "The multipart request has no file part");
+                return;
+            }
+            report = importService.importCsv(type, csv);
+        } catch (IllegalArgumentException | IOException e) {
+            JsonResponses.sendError(resp, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        JsonWriter json = JsonResponses.start(resp);
+        json.beginObject()
+                .name("type").value(report.getType())
+                .name("rowsRead").value(report.getRowsRead())
+                .name("rowsImported").value(report.getRowsImported())
+                .name("rowsFailed").value(report.getRowsFailed())
+                .name("elapsedMillis").value(report.getElapsedMillis())
+                .name("errors").beginArray();
+        for (ImportReport.RowError error : report.getErrors()) {
+            json.beginObject()
+                    .name("line").value(error.getLine())
+                    .name("message").value(error.getMessage())
+                    .endObject();
+        }
+        json.endArray().endObject().flush();
+    }
+
+    private Reader openCsv(HttpServletRequest req) throws ServletException, IOException {
+        String contentType = req.getContentType();
+        if (contentType == null || !contentType.startsWith("multipart/form-data")) {
+            if (req.getCharacterEncoding() == null) {
+                req.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            }
+            return req.getReader();
+        }
+        Part part = req.getPart("file");
+        return part == null ? null
+                : new InputStreamReader(part.getInputStream(), StandardCharsets.UTF_8);
+    }
+}
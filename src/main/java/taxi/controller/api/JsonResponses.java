@@ -0,0 +1,186 @@
+package taxi.controller.api;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.controller.Pagination;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.Manufacturer;
+import taxi.service.GenericService;
+import taxi.util.JsonWriter;
+
+/**
+ * Helpers shared by the JSON API. Lists are paged when {@code after} or {@code limit} is
+ * given and otherwise streamed from the DAO cursor straight into the response. The
+ * {@code fields} parameter selects the top-level fields to write, all of them by default.
+ * Passwords are never written.
+ */
+public class JsonResponses {
+    private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+
+    public static JsonWriter start(HttpServletResponse resp) throws IOException {
+        resp.setContentType(CONTENT_TYPE);
+        return new JsonWriter(resp.getWriter());
+    }
+
+    public static void sendError(HttpServletResponse resp, int status, String message)
+            throws IOException {
+        resp.setStatus(status);
+        start(resp).beginObject().name("error").value(message).endObject().flush();
+    }
+
+    /**
+     * Returns the id in the given segment of the path info, e.g. 7 for segment 0 of
+     * {@code /7/cars}, or null when there's no such segment or it isn't a number.
+     */
+    public static Long getId(HttpServletRequest req, int segment) {
+        String[] segments = getSegments(req);
+        if (segments.length <= segment) {
+            return null;
+        }
+        try {
+            return Long.parseLong(segments[segment]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static String[] getSegments(HttpServletRequest req) {
+        String pathInfo = req.getPathInfo();
+        if (pathInfo == null || pathInfo.equals("/")) {
+            return new String[0];
+        }
+        return pathInfo.substring(1).split("/");
+    }
+
+    public static Set<String> getFields(HttpServletRequest req) {
+        String fields = req.getParameter("fields");
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        return Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    public static <T> void writeList(HttpServletRequest req, HttpServletResponse resp,
+                                     GenericService<T> service, Function<T, Long> idExtractor,
+                                     ItemWriter<T> itemWriter) throws IOException {
+        Set<String> fields = getFields(req);
+        JsonWriter json = start(resp);
+        json.beginObject().name("items").beginArray();
+        if (req.getParameter("after") == null && req.getParameter("limit") == null) {
+            try {
+                service.forEach(item -> {
+                    try {
+                        itemWriter.write(json, item, fields);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            json.endArray().endObject().flush();
+            return;
+        }
+        int limit = Pagination.getLimit(req);
+        List<T> page = service.getPage(Pagination.getAfterId(req), limit);
+        writeItems(json, page, fields, itemWriter);
+        json.endArray();
+        json.name("next");
+        if (page.size() < limit) {
+            json.nullValue();
+        } else {
+            String next = req.getRequestURL() + "?after="
+                    + idExtractor.apply(page.get(page.size() - 1)) + "&limit=" + limit;
+            String selectedFields = req.getParameter("fields");
+            json.value(selectedFields == null ? next : next + "&fields=" + selectedFields);
+        }
+        json.endObject().flush();
+    }
+
+    public static <T> void writeItems(JsonWriter json, List<T> items, Set<String> fields,
+                                      ItemWriter<T> itemWriter) throws IOException {
+        for (T item : items) {
+            itemWriter.write(json, item, fields);
+        }
+    }
+
+    public static void writeCar(JsonWriter json, Car car, Set<String> fields)
+            throws IOException {
+        json.beginObject();
+        if (isSelected(fields, "id")) {
+            json.name("id").value(car.getId());
+        }
+        if (isSelected(fields, "model")) {
+            json.name("model").value(car.getModel());
+        }
+        if (isSelected(fields, "manufacturer")) {
+            json.name("manufacturer");
+            if (car.getManufacturer() == null) {
+                json.nullValue();
+            } else {
+                writeManufacturer(json, car.getManufacturer(), null);
+            }
+        }
+        if (isSelected(fields, "drivers")) {
+            json.name("drivers").beginArray();
+            if (car.getDrivers() != null) {
+                writeItems(json, car.getDrivers(), null, JsonResponses::writeDriver);
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    public static void writeDriver(JsonWriter json, Driver driver, Set<String> fields)
+            throws IOException {
+        json.beginObject();
+        if (isSelected(fields, "id")) {
+            json.name("id").value(driver.getId());
+        }
+        if (isSelected(fields, "name")) {
+            json.name("name").value(driver.getName());
+        }
+        if (isSelected(fields, "licenseNumber")) {
+            json.name("licenseNumber").value(driver.getLicenseNumber());
+        }
+        if (isSelected(fields, "login")) {
+            json.name("login").value(driver.getLogin());
+        }
+        json.endObject();
+    }
+
+    public static void writeManufacturer(JsonWriter json, Manufacturer manufacturer,
+                                         Set<String> fields) throws IOException {
+        json.beginObject();
+        if (isSelected(fields, "id")) {
+            json.name("id").value(manufacturer.getId());
+        }
+        if (isSelected(fields, "name")) {
+            json.name("name").value(manufacturer.getName());
+        }
+        if (isSelected(fields, "country")) {
+            json.name("country").value(manufacturer.getCountry());
+        }
+        json.endObject();
+    }
+
+    private static boolean isSelected(Set<String> fields, String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    @FunctionalInterface
+    public interface ItemWriter<T> {
+        void write(JsonWriter json, T item, Set<String> fields) throws IOException;
+    }
+}
@@ -0,0 +1,53 @@
+package taxi.controller.api;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.controller.AsyncRequests;
+import taxi.controller.ConditionalGet;
+import taxi.event.EntityType;
+import taxi.lib.Injector;
+import taxi.model.Manufacturer;
+import taxi.service.ManufacturerService;
+import taxi.util.JsonWriter;
+
+public class ManufacturersApiController extends HttpServlet {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private final ManufacturerService manufacturerService = (ManufacturerService) injector
+            .getInstance(ManufacturerService.class);
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        String[] segments = JsonResponses.getSegments(req);
+        if (segments.length > 1) {
+            JsonResponses.sendError(resp, HttpServletResponse.SC_NOT_FOUND, "No such resource");
+            return;
+        }
+        if (ConditionalGet.isNotModified(req, resp, EntityType.MANUFACTURER)) {
+            return;
+        }
+        AsyncRequests.stream(req, resp, this::writeManufacturers);
+    }
+
+    private void writeManufacturers(HttpServletRequest req, HttpServletResponse resp)
+            throws IOException {
+        if (JsonResponses.getSegments(req).length == 0) {
+            JsonResponses.writeList(req, resp, manufacturerService, Manufacturer::getId,
+                    JsonResponses::writeManufacturer);
+            return;
+        }
+        Long id = JsonResponses.getId(req, 0);
+        try {
+            Manufacturer manufacturer = manufacturerService.get(id == null ? -1 : id);
+            JsonWriter json = JsonResponses.start(resp);
+            JsonResponses.writeManufacturer(json, manufacturer, JsonResponses.getFields(req));
+            json.flush();
+        } catch (NoSuchElementException e) {
+            JsonResponses.sendError(resp, HttpServletResponse.SC_NOT_FOUND, e.getMessage());
+        }
+    }
+}
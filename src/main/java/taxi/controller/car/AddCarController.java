@@ -5,6 +5,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import taxi.controller.AsyncRequests;
 import taxi.lib.Injector;
 import taxi.model.Car;
 import taxi.model.Manufacturer;
@@ -24,12 +25,17 @@ public class AddCarController extends HttpServlet {
     }
 
     @Override
-    public void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    public void doPost(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        AsyncRequests.execute(req, resp, this::addCar, (request, response) ->
+                response.sendRedirect(request.getContextPath() + "/cars/add"));
+    }
+
+    private void addCar(HttpServletRequest req) {
         String model = req.getParameter("model");
         long manufacturerId = Long.parseLong(req.getParameter("manufacturer_id"));
         Manufacturer manufacturer = manufacturerService.get(manufacturerId);
         Car car = new Car(model, manufacturer);
         carService.create(car);
-        resp.sendRedirect(req.getContextPath() + "/cars/add");
     }
 }
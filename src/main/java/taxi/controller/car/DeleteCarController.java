@@ -1,9 +1,11 @@
 package taxi.controller.car;
 
 import java.io.IOException;
+import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import taxi.controller.AsyncRequests;
 import taxi.lib.Injector;
 import taxi.service.CarService;
 
@@ -12,8 +14,10 @@ public class DeleteCarController extends HttpServlet {
     private final CarService carService = (CarService) injector.getInstance(CarService.class);
 
     @Override
-    public void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
-        carService.delete(Long.parseLong(req.getParameter("id")));
-        resp.sendRedirect(req.getContextPath() + "/cars");
+    public void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        AsyncRequests.execute(req, resp,
+                request -> carService.delete(Long.parseLong(request.getParameter("id"))),
+                (request, response) -> response.sendRedirect(request.getContextPath() + "/cars"));
     }
 }
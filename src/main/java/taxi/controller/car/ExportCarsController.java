@@ -0,0 +1,114 @@
+package taxi.controller.car;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.controller.AsyncRequests;
+import taxi.controller.api.JsonResponses;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.service.CarService;
+import taxi.util.CsvWriter;
+import taxi.util.JsonWriter;
+
+/**
+ * Streams all cars from the forward-only cursor of {@link CarService#forEach} into the
+ * response, so memory stays the same whatever the size of the fleet. {@code format=csv}
+ * writes one record per car and driver, with empty driver columns for a car without
+ * drivers; {@code format=ndjson} writes one JSON object per car. The response is
+ * gzipped when the client accepts it. The cursor keeps its connection until the last row
+ * is written, so a slow client holds a pool connection for as long as it reads.
+ */
+public class ExportCarsController extends HttpServlet {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final String CSV = "csv";
+    private static final String NDJSON = "ndjson";
+    private final CarService carService = (CarService) injector.getInstance(CarService.class);
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        String format = req.getParameter("format");
+        if (format != null && !format.equals(CSV) && !format.equals(NDJSON)) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                    "The format must be csv or ndjson");
+            return;
+        }
+        AsyncRequests.stream(req, resp, this::export);
+    }
+
+    private void export(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        boolean ndjson = NDJSON.equals(req.getParameter("format"));
+        resp.setContentType(ndjson ? "application/x-ndjson;charset=UTF-8"
+                : "text/csv;charset=UTF-8");
+        resp.setHeader("Content-Disposition", "attachment; filename=\"cars."
+                + (ndjson ? NDJSON : CSV) + "\"");
+        resp.setHeader("Vary", "Accept-Encoding");
+        OutputStream out = resp.getOutputStream();
+        if (acceptsGzip(req)) {
+            resp.setHeader("Content-Encoding", "gzip");
+            out = new GZIPOutputStream(out);
+        }
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            if (ndjson) {
+                writeNdjson(writer);
+            } else {
+                writeCsv(writer);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeCsv(Writer writer) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRecord("car_id", "model", "manufacturer_id", "manufacturer_name",
+                "manufacturer_country", "driver_id", "driver_name", "driver_license_number",
+                "driver_login");
+        carService.forEach(car -> {
+            try {
+                if (car.getDrivers().isEmpty()) {
+                    writeCsvRecord(csv, car, new Driver());
+                }
+                for (Driver driver : car.getDrivers()) {
+                    writeCsvRecord(csv, car, driver);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeCsvRecord(CsvWriter csv, Car car, Driver driver) throws IOException {
+        csv.writeRecord(car.getId(), car.getModel(), car.getManufacturer().getId(),
+                car.getManufacturer().getName(), car.getManufacturer().getCountry(),
+                driver.getId(), driver.getName(), driver.getLicenseNumber(), driver.getLogin());
+    }
+
+    private void writeNdjson(Writer writer) {
+        carService.forEach(car -> {
+            try {
+                JsonResponses.writeCar(new JsonWriter(writer), car, null);
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private boolean acceptsGzip(HttpServletRequest req) {
+        String acceptEncoding = req.getHeader("Accept-Encoding");
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+}
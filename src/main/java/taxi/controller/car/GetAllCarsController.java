@@ -6,6 +6,10 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import taxi.controller.AsyncRequests;
+import taxi.controller.ConditionalGet;
+import taxi.controller.Pagination;
+import taxi.event.EntityType;
 import taxi.lib.Injector;
 import taxi.model.Car;
 import taxi.service.CarService;
@@ -17,8 +21,18 @@ public class GetAllCarsController extends HttpServlet {
     @Override
     public void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
-        List<Car> cars = carService.getAll();
+        if (ConditionalGet.isUnchanged(req, resp, EntityType.CAR, EntityType.CAR_ASSIGNMENT,
+                EntityType.DRIVER, EntityType.MANUFACTURER)) {
+            return;
+        }
+        AsyncRequests.execute(req, resp, this::loadCars, (request, response) ->
+                ConditionalGet.render(request, response, "/WEB-INF/views/cars/all.jsp"));
+    }
+
+    private void loadCars(HttpServletRequest req) {
+        int limit = Pagination.getLimit(req);
+        List<Car> cars = carService.getPage(Pagination.getAfterId(req), limit);
+        Pagination.setNextPage(req, "/cars", cars, limit, Car::getId);
         req.setAttribute("cars", cars);
-        req.getRequestDispatcher("/WEB-INF/views/cars/all.jsp").forward(req, resp);
     }
 }
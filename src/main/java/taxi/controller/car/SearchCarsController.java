@@ -0,0 +1,49 @@
+package taxi.controller.car;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.controller.AsyncRequests;
+import taxi.controller.ConditionalGet;
+import taxi.controller.Pagination;
+import taxi.event.EntityType;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.service.CarSearchService;
+
+/**
+ * Lists the cars whose model, manufacturer name or manufacturer country contain every
+ * word of {@code q}, a page at a time like {@link GetAllCarsController}.
+ */
+public class SearchCarsController extends HttpServlet {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private final CarSearchService carSearchService =
+            (CarSearchService) injector.getInstance(CarSearchService.class);
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        if (ConditionalGet.isUnchanged(req, resp, EntityType.CAR, EntityType.CAR_ASSIGNMENT,
+                EntityType.DRIVER, EntityType.MANUFACTURER)) {
+            return;
+        }
+        AsyncRequests.execute(req, resp, this::searchCars, (request, response) ->
+                ConditionalGet.render(request, response, "/WEB-INF/views/cars/all.jsp"));
+    }
+
+    private void searchCars(HttpServletRequest req) {
+        String query = req.getParameter("q");
+        query = query == null ? "" : query;
+        int limit = Pagination.getLimit(req);
+        List<Car> cars = carSearchService.search(query, Pagination.getAfterId(req), limit);
+        Pagination.setNextPage(req, "/cars/search?q="
+                + URLEncoder.encode(query, StandardCharsets.UTF_8), cars, limit, Car::getId);
+        req.setAttribute("cars", cars);
+        req.setAttribute("query", query);
+    }
+}
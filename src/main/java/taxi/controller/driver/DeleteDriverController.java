@@ -1,9 +1,11 @@
 package taxi.controller.driver;
 
 import java.io.IOException;
+import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import taxi.controller.AsyncRequests;
 import taxi.lib.Injector;
 import taxi.service.DriverService;
 
@@ -13,8 +15,11 @@ public class DeleteDriverController extends HttpServlet {
             .getInstance(DriverService.class);
 
     @Override
-    public void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
-        driverService.delete(Long.parseLong(req.getParameter("id")));
-        resp.sendRedirect(req.getContextPath() + "/drivers");
+    public void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        AsyncRequests.execute(req, resp,
+                request -> driverService.delete(Long.parseLong(request.getParameter("id"))),
+                (request, response) ->
+                        response.sendRedirect(request.getContextPath() + "/drivers"));
     }
 }
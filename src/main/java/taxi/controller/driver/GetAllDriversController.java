@@ -6,6 +6,10 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import taxi.controller.AsyncRequests;
+import taxi.controller.ConditionalGet;
+import taxi.controller.Pagination;
+import taxi.event.EntityType;
 import taxi.lib.Injector;
 import taxi.model.Driver;
 import taxi.service.DriverService;
@@ -18,8 +22,17 @@ public class GetAllDriversController extends HttpServlet {
     @Override
     public void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
-        List<Driver> drivers = driverService.getAll();
+        if (ConditionalGet.isUnchanged(req, resp, EntityType.DRIVER)) {
+            return;
+        }
+        AsyncRequests.execute(req, resp, this::loadDrivers, (request, response) ->
+                ConditionalGet.render(request, response, "/WEB-INF/views/drivers/all.jsp"));
+    }
+
+    private void loadDrivers(HttpServletRequest req) {
+        int limit = Pagination.getLimit(req);
+        List<Driver> drivers = driverService.getPage(Pagination.getAfterId(req), limit);
+        Pagination.setNextPage(req, "/drivers", drivers, limit, Driver::getId);
         req.setAttribute("drivers", drivers);
-        req.getRequestDispatcher("/WEB-INF/views/drivers/all.jsp").forward(req, resp);
     }
 }
@@ -1,27 +1,18 @@
 package taxi.controller.driver;
 
 import java.io.IOException;
-import java.util.List;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
-import taxi.lib.Injector;
-import taxi.model.Car;
-import taxi.service.CarService;
+import taxi.model.Principal;
 
 public class GetMyCurrentCarsController extends HttpServlet {
-    private static final Injector injector = Injector.getInstance("taxi");
-    private final CarService carService = (CarService) injector.getInstance(CarService.class);
-
     @Override
     public void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
-        HttpSession session = req.getSession();
-        Long driverId = (Long) session.getAttribute("driver_id");
-        List<Car> cars = carService.getAllByDriver(driverId);
-        req.setAttribute("cars", cars);
+        Principal principal = (Principal) req.getAttribute("principal");
+        req.setAttribute("cars", principal.getCars());
         req.getRequestDispatcher("/WEB-INF/views/cars/all.jsp").forward(req, resp);
     }
 }
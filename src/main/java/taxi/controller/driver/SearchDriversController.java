@@ -0,0 +1,42 @@
+package taxi.controller.driver;
+
+import java.io.IOException;
+import java.util.List;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.controller.Pagination;
+import taxi.controller.api.JsonResponses;
+import taxi.lib.Injector;
+import taxi.model.Driver;
+import taxi.service.DriverSearchService;
+import taxi.util.JsonWriter;
+
+/**
+ * Answers {@code /drivers/search?q=...&limit=...} with the matching drivers as JSON. The
+ * search runs on the in-memory index, so it stays on the container thread.
+ */
+public class SearchDriversController extends HttpServlet {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private final DriverSearchService driverSearchService = (DriverSearchService) injector
+            .getInstance(DriverSearchService.class);
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        String query = req.getParameter("q");
+        if (query == null || query.isBlank()) {
+            JsonResponses.sendError(resp, HttpServletResponse.SC_BAD_REQUEST,
+                    "The q parameter is required");
+            return;
+        }
+        List<Driver> drivers = driverSearchService.search(query,
+                Pagination.getLimit(req));
+        JsonWriter json = JsonResponses.start(resp);
+        json.beginObject().name("items").beginArray();
+        JsonResponses.writeItems(json, drivers, JsonResponses.getFields(req),
+                JsonResponses::writeDriver);
+        json.endArray().endObject().flush();
+    }
+}
@@ -1,9 +1,11 @@
 package taxi.controller.manufacturer;
 
 import java.io.IOException;
+import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import taxi.controller.AsyncRequests;
 import taxi.lib.Injector;
 import taxi.service.ManufacturerService;
 
@@ -13,8 +15,11 @@ public class DeleteManufacturerController extends HttpServlet {
             .getInstance(ManufacturerService.class);
 
     @Override
-    public void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
-        manufacturerService.delete(Long.parseLong(req.getParameter("id")));
-        resp.sendRedirect(req.getContextPath() + "/manufacturers");
+    public void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        AsyncRequests.execute(req, resp,
+                request -> manufacturerService.delete(Long.parseLong(request.getParameter("id"))),
+                (request, response) ->
+                        response.sendRedirect(request.getContextPath() + "/manufacturers"));
     }
 }
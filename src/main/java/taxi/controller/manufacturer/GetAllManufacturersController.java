@@ -6,6 +6,10 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import taxi.controller.AsyncRequests;
+import taxi.controller.ConditionalGet;
+import taxi.controller.Pagination;
+import taxi.event.EntityType;
 import taxi.lib.Injector;
 import taxi.model.Manufacturer;
 import taxi.service.ManufacturerService;
@@ -18,8 +22,19 @@ public class GetAllManufacturersController extends HttpServlet {
     @Override
     public void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
-        List<Manufacturer> manufacturers = manufacturerService.getAll();
+        if (ConditionalGet.isUnchanged(req, resp, EntityType.MANUFACTURER)) {
+            return;
+        }
+        AsyncRequests.execute(req, resp, this::loadManufacturers, (request, response) ->
+                ConditionalGet.render(request, response,
+                        "/WEB-INF/views/manufacturers/all.jsp"));
+    }
+
+    private void loadManufacturers(HttpServletRequest req) {
+        int limit = Pagination.getLimit(req);
+        List<Manufacturer> manufacturers =
+                manufacturerService.getPage(Pagination.getAfterId(req), limit);
+        Pagination.setNextPage(req, "/manufacturers", manufacturers, limit, Manufacturer::getId);
         req.setAttribute("manufacturers", manufacturers);
-        req.getRequestDispatcher("/WEB-INF/views/manufacturers/all.jsp").forward(req, resp);
     }
 }
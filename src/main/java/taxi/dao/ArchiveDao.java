@@ -0,0 +1,24 @@
+package taxi.dao;
+
+/**
+ * Moves rows soft-deleted more than {@code retentionDays} ago to the archive tables. The
+ * age is measured by the database clock, which also writes {@code deleted_at}. Each call
+ * moves at most {@code limit} rows of one table and is meant to run in its own
+ * transaction.
+ */
+public interface ArchiveDao {
+    /**
+     * Archives deleted cars together with their driver assignments.
+     */
+    int archiveCars(int retentionDays, int limit);
+
+    /**
+     * Archives deleted drivers together with the assignments that still point at them.
+     */
+    int archiveDrivers(int retentionDays, int limit);
+
+    /**
+     * Archives deleted manufacturers that no car refers to any more.
+     */
+    int archiveManufacturers(int retentionDays, int limit);
+}
@@ -0,0 +1,137 @@
+package taxi.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.exception.DataProcessingException;
+import taxi.lib.Dao;
+import taxi.util.ConnectionUtil;
+
+/**
+ * Copies a batch of deleted rows into the archive tables and removes them from the live
+ * ones. The batch is picked through the {@code deleted_at} index, so rows that were never
+ * deleted are not read. Assignments are moved before the cars and drivers they refer to,
+ * which keeps the foreign keys satisfied.
+ */
+@Dao
+public class ArchiveDaoImpl implements ArchiveDao {
+    private static final Logger logger = LogManager.getLogger(ArchiveDaoImpl.class);
+
+    @Override
+    public int archiveCars(int retentionDays, int limit) {
+        String query = "SELECT id FROM cars WHERE is_deleted = TRUE"
+                + " AND deleted_at < TIMESTAMPADD(DAY, -?, CURRENT_TIMESTAMP)"
+                + " ORDER BY deleted_at LIMIT ?";
+        try (Connection connection = ConnectionUtil.getConnection()) {
+            List<Long> ids = findIds(connection, query, retentionDays, limit);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            moveAssignments(connection, "car_id", ids);
+            execute(connection, "INSERT INTO cars_archive"
+                    + " (id, model, manufacturer_id, deleted_at, archived_at)"
+                    + " SELECT id, model, manufacturer_id, deleted_at, CURRENT_TIMESTAMP"
+                    + " FROM cars WHERE id", ids);
+            execute(connection, "DELETE FROM cars WHERE id", ids);
+            return ids.size();
+        } catch (SQLException e) {
+            logger.error("Can't archive cars. Params: retentionDays={}", retentionDays, e);
+            throw new DataProcessingException("Can't archive cars deleted more than "
+                    + retentionDays + " days ago", e);
+        }
+    }
+
+    @Override
+    public int archiveDrivers(int retentionDays, int limit) {
+        String query = "SELECT id FROM drivers WHERE is_deleted = TRUE"
+                + " AND deleted_at < TIMESTAMPADD(DAY, -?, CURRENT_TIMESTAMP)"
+                + " ORDER BY deleted_at LIMIT ?";
+        try (Connection connection = ConnectionUtil.getConnection()) {
+            List<Long> ids = findIds(connection, query, retentionDays, limit);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            moveAssignments(connection, "driver_id", ids);
+            execute(connection, "INSERT INTO drivers_archive"
+                    + " (id, name, license_number, login, password, deleted_at, archived_at)"
+                    + " SELECT id, name, license_number, login, password, deleted_at,"
+                    + " CURRENT_TIMESTAMP FROM drivers WHERE id", ids);
+            execute(connection, "DELETE FROM drivers WHERE id", ids);
+            return ids.size();
+        } catch (SQLException e) {
+            logger.error("Can't archive drivers. Params: retentionDays={}", retentionDays, e);
+            throw new DataProcessingException("Can't archive drivers deleted more than "
+                    + retentionDays + " days ago", e);
+        }
+    }
+
+    @Override
+    public int archiveManufacturers(int retentionDays, int limit) {
+        String query = "SELECT m.id FROM manufacturers m"
+                + " WHERE m.is_deleted = TRUE"
+                + " AND m.deleted_at < TIMESTAMPADD(DAY, -?, CURRENT_TIMESTAMP)"
+                + " AND NOT EXISTS (SELECT 1 FROM cars c WHERE c.manufacturer_id = m.id)"
+                + " ORDER BY m.deleted_at LIMIT ?";
+        try (Connection connection = ConnectionUtil.getConnection()) {
+            List<Long> ids = findIds(connection, query, retentionDays, limit);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            execute(connection, "INSERT INTO manufacturers_archive"
+                    + " (id, name, country, deleted_at, archived_at)"
+                    + " SELECT id, name, country, deleted_at, CURRENT_TIMESTAMP"
+                    + " FROM manufacturers WHERE id", ids);
+            execute(connection, "DELETE FROM manufacturers WHERE id", ids);
+            return ids.size();
+        } catch (SQLException e) {
+            logger.error("Can't archive manufacturers. Params: retentionDays={}",
+                    retentionDays, e);
+            throw new DataProcessingException("Can't archive manufacturers deleted more than "
+                    + retentionDays + " days ago", e);
+        }
+    }
+
+    private List<Long> findIds(Connection connection, String query,
+                               int retentionDays, int limit) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, retentionDays);
+            statement.setInt(2, limit);
+            ResultSet resultSet = statement.executeQuery();
+            List<Long> ids = new ArrayList<>();
+            while (resultSet.next()) {
+                ids.add(resultSet.getObject(1, Long.class));
+            }
+            return ids;
+        }
+    }
+
+    private void moveAssignments(Connection connection, String column, List<Long> ids)
+            throws SQLException {
+        execute(connection, "INSERT INTO cars_drivers_archive (car_id, driver_id, archived_at)"
+                + " SELECT car_id, driver_id, CURRENT_TIMESTAMP FROM cars_drivers WHERE "
+                + column, ids);
+        execute(connection, "DELETE FROM cars_drivers WHERE " + column, ids);
+    }
+
+    /**
+     * Runs the statement with {@code IN (ids)} appended.
+     */
+    private int execute(Connection connection, String statementPrefix, List<Long> ids)
+            throws SQLException {
+        String query = statementPrefix + " IN ("
+                + String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            int index = 1;
+            for (Long id : ids) {
+                statement.setLong(index++, id);
+            }
+            return statement.executeUpdate();
+        }
+    }
+}
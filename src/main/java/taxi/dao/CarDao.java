@@ -1,8 +1,14 @@
 package taxi.dao;
 
+import java.util.Collection;
 import java.util.List;
 import taxi.model.Car;
 
 public interface CarDao extends GenericDao<Car> {
     List<Car> getAllByDriver(Long driverId);
+
+    /**
+     * Returns the active cars among the given ids with their drivers, ordered by id.
+     */
+    List<Car> getAllByIds(Collection<Long> ids);
 }
@@ -6,78 +6,115 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.event.EntityEvents;
+import taxi.event.EntityType;
 import taxi.exception.DataProcessingException;
 import taxi.lib.Dao;
 import taxi.model.Car;
 import taxi.model.Driver;
 import taxi.model.Manufacturer;
 import taxi.util.ConnectionUtil;
+import taxi.util.TransactionManager;
 
 @Dao
 public class CarDaoImpl implements CarDao {
     private static final Logger logger = LogManager.getLogger(CarDaoImpl.class);
+    private static final int DRIVERS_BATCH_SIZE = 500;
 
     @Override
     public Car create(Car car) {
-        logger.debug("Method create a car was called. Params: car model={}", car.getModel());
-        String query = "INSERT INTO cars (model, manufacturer_id)"
-                + "VALUES (?, ?)";
-        try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement =
-                        connection.prepareStatement(
-                             query, Statement.RETURN_GENERATED_KEYS)) {
-            statement.setString(1, car.getModel());
-            statement.setLong(2, car.getManufacturer().getId());
-            statement.executeUpdate();
-            ResultSet resultSet = statement.getGeneratedKeys();
-            if (resultSet.next()) {
-                car.setId(resultSet.getObject(1, Long.class));
+        return TransactionManager.inTransaction(() -> {
+            Set<Long> driverIds = getDriverIds(car);
+            String query = "INSERT INTO cars (model, manufacturer_id)"
+                    + "VALUES (?, ?)";
+            try (Connection connection = ConnectionUtil.getConnection();
+                    PreparedStatement statement =
+                            connection.prepareStatement(
+                                 query, Statement.RETURN_GENERATED_KEYS)) {
+                statement.setString(1, car.getModel());
+                statement.setLong(2, car.getManufacturer().getId());
+                statement.executeUpdate();
+                ResultSet resultSet = statement.getGeneratedKeys();
+                if (resultSet.next()) {
+                    car.setId(resultSet.getObject(1, Long.class));
+                }
+                insertDrivers(connection, car.getId(), driverIds);
+                publishChanges(car.getId(), driverIds);
+            } catch (SQLException e) {
+                logger.error("Can't create a car. Params: car model={}", car.getModel(), e);
+                throw new DataProcessingException("Can't create a car " + car, e);
             }
-        } catch (SQLException e) {
-            logger.error("Can't create a car. Params: car model={}", car.getModel(), e);
-            throw new DataProcessingException("Can't create a car " + car, e);
+            return car;
+        });
+    }
+
+    @Override
+    public List<Car> createAll(List<Car> cars) {
+        if (cars.isEmpty()) {
+            return cars;
         }
-        insertAllDrivers(car);
-        return car;
+        return TransactionManager.inTransaction(() -> {
+            String query = "INSERT INTO cars (model, manufacturer_id) VALUES (?, ?)";
+            try (Connection connection = ConnectionUtil.getConnection();
+                    PreparedStatement statement = connection.prepareStatement(
+                            query, Statement.RETURN_GENERATED_KEYS)) {
+                for (Car car : cars) {
+                    statement.setString(1, car.getModel());
+                    statement.setLong(2, car.getManufacturer().getId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                ResultSet resultSet = statement.getGeneratedKeys();
+                for (int i = 0; i < cars.size() && resultSet.next(); i++) {
+                    cars.get(i).setId(resultSet.getObject(1, Long.class));
+                }
+                insertAllDrivers(connection, cars);
+            } catch (SQLException e) {
+                logger.error("Can't create cars. Params: count={}", cars.size(), e);
+                throw new DataProcessingException("Can't create " + cars.size() + " cars", e);
+            }
+            return cars;
+        });
     }
 
     @Override
     public Optional<Car> get(Long id) {
-        logger.debug("Method get a car was called. Params: car Id={}", id);
         String query = "SELECT c.id AS id, "
                 + "model, "
                 + "manufacturer_id, "
                 + "m.name AS manufacturer_name, "
-                + "m.country AS manufacturer_country "
+                + "m.country AS manufacturer_country, "
+                + DriverAggregate.COLUMNS
                 + "FROM cars c "
-                + "JOIN manufacturers m ON c.manufacturer_id = m.id "
-                + "WHERE c.id = ? AND c.is_deleted = FALSE";
-        Car car = null;
+                + "JOIN manufacturers m ON c.manufacturer_id = m.id"
+                + DriverAggregate.JOINS
+                + " WHERE c.id = ? AND c.is_deleted = FALSE"
+                + " GROUP BY c.id, model, manufacturer_id, m.name, m.country";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement =
                         connection.prepareStatement(query)) {
             statement.setLong(1, id);
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                car = parseCarFromResultSet(resultSet);
-            }
+            return parseAggregatedCars(connection, statement.executeQuery()).stream()
+                    .findFirst();
         } catch (SQLException e) {
             logger.error("Can't get a car. Params: car Id={}", id, e);
             throw new DataProcessingException("Can't get a car by id: " + id, e);
         }
-        if (car != null) {
-            car.setDrivers(getAllDriversByCarId(car.getId()));
-        }
-        return Optional.ofNullable(car);
     }
 
     @Override
     public List<Car> getAll() {
-        logger.debug("Method getAll cars was called");
         String query = "SELECT c.id AS id, "
                 + "model, "
                 + "manufacturer_id, "
@@ -94,45 +131,166 @@ public class CarDaoImpl implements CarDao {
             while (resultSet.next()) {
                 cars.add(parseCarFromResultSet(resultSet));
             }
+            loadDrivers(connection, cars);
+            return cars;
         } catch (SQLException e) {
             logger.error("Can't get any car", e);
             throw new DataProcessingException("Can't get all cars", e);
         }
-        cars.forEach(car -> car.setDrivers(getAllDriversByCarId(car.getId())));
-        return cars;
     }
 
+    /**
+     * Reads the page with its drivers in one round trip, the drivers of each car
+     * aggregated into a single column. The page is cut before the joins, so only its
+     * own cars are grouped.
+     */
     @Override
-    public Car update(Car car) {
-        logger.debug("Method update a car was called. Params: car Id={}", car.getId());
-        String query = "UPDATE cars SET model = ?, manufacturer_id = ? WHERE id = ?"
-                + " AND is_deleted = FALSE";
+    public List<Car> getPage(Long afterId, int limit) {
+        String query = "SELECT c.id AS id, "
+                + "model, "
+                + "manufacturer_id, "
+                + "m.name AS manufacturer_name, "
+                + "m.country AS manufacturer_country, "
+                + DriverAggregate.COLUMNS
+                + "FROM (SELECT id, model, manufacturer_id FROM cars"
+                + " WHERE id > ? AND is_deleted = FALSE ORDER BY id LIMIT ?) c"
+                + " JOIN manufacturers m ON c.manufacturer_id = m.id"
+                + DriverAggregate.JOINS
+                + " GROUP BY c.id, model, manufacturer_id, m.name, m.country"
+                + " ORDER BY c.id";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement =
                         connection.prepareStatement(query)) {
-            statement.setString(1, car.getModel());
-            statement.setLong(2, car.getManufacturer().getId());
-            statement.setLong(3, car.getId());
-            statement.executeUpdate();
+            statement.setLong(1, afterId == null ? 0 : afterId);
+            statement.setInt(2, limit);
+            return parseAggregatedCars(connection, statement.executeQuery());
         } catch (SQLException e) {
-            logger.error("Can't update a car. Params: car Id={}", car.getId(), e);
-            throw new DataProcessingException("Can't update a car " + car, e);
+            logger.error("Can't get a page of cars. Params: after Id={}, limit={}",
+                    afterId, limit, e);
+            throw new DataProcessingException("Can't get a page of cars after id "
+                    + afterId, e);
+        }
+    }
+
+    @Override
+    public List<Car> getAllByIds(Collection<Long> ids) {
+        List<Long> idList = new ArrayList<>(ids);
+        idList.sort(null);
+        List<Car> cars = new ArrayList<>();
+        try (Connection connection = ConnectionUtil.getConnection()) {
+            for (int from = 0; from < idList.size(); from += DRIVERS_BATCH_SIZE) {
+                List<Long> batch = idList.subList(from,
+                        Math.min(from + DRIVERS_BATCH_SIZE, idList.size()));
+                String query = "SELECT c.id AS id, "
+                        + "model, "
+                        + "manufacturer_id, "
+                        + "m.name AS manufacturer_name, "
+                        + "m.country AS manufacturer_country, "
+                        + DriverAggregate.COLUMNS
+                        + "FROM cars c"
+                        + " JOIN manufacturers m ON c.manufacturer_id = m.id"
+                        + DriverAggregate.JOINS
+                        + " WHERE c.id IN (" + placeholders(batch.size()) + ")"
+                        + " AND c.is_deleted = FALSE"
+                        + " GROUP BY c.id, model, manufacturer_id, m.name, m.country"
+                        + " ORDER BY c.id";
+                try (PreparedStatement statement = connection.prepareStatement(query)) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        statement.setLong(i + 1, batch.get(i));
+                    }
+                    cars.addAll(parseAggregatedCars(connection, statement.executeQuery()));
+                }
+            }
+            return cars;
+        } catch (SQLException e) {
+            logger.error("Can't get cars by ids. Params: count={}", ids.size(), e);
+            throw new DataProcessingException("Can't get " + ids.size() + " cars by ids", e);
         }
-        deleteAllDrivers(car);
-        insertAllDrivers(car);
-        return car;
+    }
+
+    /**
+     * Streams cars joined with their drivers ordered by car id, so the rows of one car
+     * are adjacent and each car is handed over as soon as its last row has been read.
+     */
+    @Override
+    public void forEach(Consumer<? super Car> action) {
+        String query = "SELECT c.id AS id, "
+                + "model, "
+                + "manufacturer_id, "
+                + "m.name AS manufacturer_name, "
+                + "m.country AS manufacturer_country, "
+                + "d.id AS driver_id, "
+                + "d.name AS driver_name, "
+                + "d.license_number AS driver_license_number, "
+                + "d.login AS driver_login "
+                + "FROM cars c"
+                + " JOIN manufacturers m ON c.manufacturer_id = m.id"
+                + " LEFT JOIN cars_drivers cd ON c.id = cd.car_id"
+                + " LEFT JOIN drivers d ON cd.driver_id = d.id AND d.is_deleted = FALSE"
+                + " WHERE c.is_deleted = FALSE"
+                + " ORDER BY c.id";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement =
+                        ConnectionUtil.prepareStreamingStatement(connection, query)) {
+            ResultSet resultSet = statement.executeQuery();
+            Car car = null;
+            while (resultSet.next()) {
+                Long carId = resultSet.getObject("id", Long.class);
+                if (car == null || !car.getId().equals(carId)) {
+                    if (car != null) {
+                        action.accept(car);
+                    }
+                    car = parseCarFromResultSet(resultSet);
+                    car.setDrivers(new ArrayList<>());
+                }
+                if (resultSet.getObject("driver_id", Long.class) != null) {
+                    car.getDrivers().add(parseJoinedDriverFromResultSet(resultSet));
+                }
+            }
+            if (car != null) {
+                action.accept(car);
+            }
+        } catch (SQLException e) {
+            logger.error("Can't stream cars", e);
+            throw new DataProcessingException("Can't stream cars", e);
+        }
+    }
+
+    @Override
+    public Car update(Car car) {
+        return TransactionManager.inTransaction(() -> {
+            String query = "UPDATE cars SET model = ?, manufacturer_id = ? WHERE id = ?"
+                    + " AND is_deleted = FALSE";
+            try (Connection connection = ConnectionUtil.getConnection();
+                    PreparedStatement statement =
+                            connection.prepareStatement(query)) {
+                statement.setString(1, car.getModel());
+                statement.setLong(2, car.getManufacturer().getId());
+                statement.setLong(3, car.getId());
+                statement.executeUpdate();
+                updateDrivers(connection, car);
+            } catch (SQLException e) {
+                logger.error("Can't update a car. Params: car Id={}", car.getId(), e);
+                throw new DataProcessingException("Can't update a car " + car, e);
+            }
+            return car;
+        });
     }
 
     @Override
     public boolean delete(Long id) {
-        logger.debug("Method delete a car was called. Params: car Id={}", id);
-        String query = "UPDATE cars SET is_deleted = TRUE WHERE id = ?"
-                + " AND is_deleted = FALSE";
+        String query = "UPDATE cars SET is_deleted = TRUE, "
+                + "deleted_at = COALESCE(deleted_at, CURRENT_TIMESTAMP)"
+                + " WHERE id = ? AND is_deleted = FALSE";
         try (Connection connection = ConnectionUtil.getConnection();
                  PreparedStatement statement =
                          connection.prepareStatement(query)) {
             statement.setLong(1, id);
-            return statement.executeUpdate() > 0;
+            boolean deleted = statement.executeUpdate() > 0;
+            if (deleted) {
+                EntityEvents.publish(EntityType.CAR, id);
+            }
+            return deleted;
         } catch (SQLException e) {
             logger.error("Can't delete a car. Params: car Id={}", id, e);
             throw new DataProcessingException("Can't delete a car by id " + id, e);
@@ -141,7 +299,6 @@ public class CarDaoImpl implements CarDao {
 
     @Override
     public List<Car> getAllByDriver(Long driverId) {
-        logger.debug("Method getAllByDriver was called. Params: driver Id={}", driverId);
         String query = "SELECT c.id AS id, "
                 + "model, "
                 + "manufacturer_id, "
@@ -162,75 +319,178 @@ public class CarDaoImpl implements CarDao {
             while (resultSet.next()) {
                 cars.add(parseCarFromResultSet(resultSet));
             }
+            loadDrivers(connection, cars);
+            return cars;
         } catch (SQLException e) {
             logger.error("Can't get all cars by the driver. Params: driver Id={}", driverId, e);
             throw new DataProcessingException("Can't get all cars for driver with id: "
                 + driverId, e);
         }
-        cars.forEach(car -> car.setDrivers(getAllDriversByCarId(car.getId())));
-        return cars;
     }
 
-    private void insertAllDrivers(Car car) {
-        logger.debug("Method insertAllDrivers was called. Params: car Id={}", car.getId());
-        List<Driver> drivers = car.getDrivers();
-        if (drivers.size() == 0) {
-            return;
+    /**
+     * Brings the car-driver links of the car in line with its driver list by deleting
+     * and inserting only the links that differ from the stored ones.
+     */
+    private void updateDrivers(Connection connection, Car car) throws SQLException {
+        Set<Long> desiredDriverIds = getDriverIds(car);
+        Set<Long> storedDriverIds = new HashSet<>();
+        String query = "SELECT driver_id FROM cars_drivers WHERE car_id = ?";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, car.getId());
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                storedDriverIds.add(resultSet.getObject("driver_id", Long.class));
+            }
+        }
+        Set<Long> driverIdsToDelete = new HashSet<>(storedDriverIds);
+        driverIdsToDelete.removeAll(desiredDriverIds);
+        Set<Long> driverIdsToInsert = new LinkedHashSet<>(desiredDriverIds);
+        driverIdsToInsert.removeAll(storedDriverIds);
+        deleteDrivers(connection, car.getId(), driverIdsToDelete);
+        insertDrivers(connection, car.getId(), driverIdsToInsert);
+        driverIdsToInsert.addAll(driverIdsToDelete);
+        publishChanges(car.getId(), driverIdsToInsert);
+    }
+
+    private void publishChanges(Long carId, Set<Long> reassignedDriverIds) {
+        EntityEvents.publish(EntityType.CAR, carId);
+        for (Long driverId : reassignedDriverIds) {
+            EntityEvents.publish(EntityType.CAR_ASSIGNMENT, driverId);
         }
+    }
+
+    private void insertAllDrivers(Connection connection, List<Car> cars)
+            throws SQLException {
+        List<Long> carIds = new ArrayList<>(cars.size());
+        Set<Long> assignedDriverIds = new LinkedHashSet<>();
         String query = "INSERT INTO cars_drivers (car_id, driver_id) VALUES (?, ?)";
-        try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement =
-                        connection.prepareStatement(query)) {
-            statement.setLong(1, car.getId());
-            for (Driver driver : drivers) {
-                statement.setLong(2, driver.getId());
-                statement.executeUpdate();
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            for (Car car : cars) {
+                carIds.add(car.getId());
+                for (Long driverId : getDriverIds(car)) {
+                    statement.setLong(1, car.getId());
+                    statement.setLong(2, driverId);
+                    statement.addBatch();
+                    assignedDriverIds.add(driverId);
+                }
+            }
+            if (!assignedDriverIds.isEmpty()) {
+                statement.executeBatch();
             }
-        } catch (SQLException e) {
-            logger.error("Can't insert drivers to car. Params: car Id={}", car.getId(), e);
-            throw new DataProcessingException("Can't insert drivers " + drivers, e);
         }
+        EntityEvents.publishAll(EntityType.CAR, carIds);
+        EntityEvents.publishAll(EntityType.CAR_ASSIGNMENT, assignedDriverIds);
     }
 
-    private void deleteAllDrivers(Car car) {
-        logger.debug("Method deleteAllDrivers was called. Params: car Id={}", car.getId());
-        String query = "DELETE FROM cars_drivers WHERE car_id = ?";
-        try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement =
-                        connection.prepareStatement(query)) {
-            statement.setLong(1, car.getId());
-            statement.executeUpdate();
-        } catch (SQLException e) {
-            logger.error("Can't delete drivers for car. Params: car Id={}", car.getId(), e);
-            throw new DataProcessingException("Can't delete drivers " + car.getDrivers()
-                + " of car with id: " + car.getId(), e);
+    private void insertDrivers(Connection connection, Long carId,
+                               Set<Long> driverIds) throws SQLException {
+        executeLinkBatch(connection,
+                "INSERT INTO cars_drivers (car_id, driver_id) VALUES (?, ?)", carId, driverIds);
+    }
+
+    private void deleteDrivers(Connection connection, Long carId,
+                               Set<Long> driverIds) throws SQLException {
+        executeLinkBatch(connection,
+                "DELETE FROM cars_drivers WHERE car_id = ? AND driver_id = ?", carId, driverIds);
+    }
+
+    private void executeLinkBatch(Connection connection, String query, Long carId,
+                                  Set<Long> driverIds) throws SQLException {
+        if (driverIds.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            for (Long driverId : driverIds) {
+                statement.setLong(1, carId);
+                statement.setLong(2, driverId);
+                statement.addBatch();
+            }
+            statement.executeBatch();
         }
     }
 
-    private List<Driver> getAllDriversByCarId(Long carId) {
-        logger.debug("Method getAllDriversByCarId was called. Params: car Id={}", carId);
-        String query = "SELECT id, name, license_number, login "
-                + "FROM cars_drivers cd "
-                + "JOIN drivers d ON cd.driver_id = d.id "
-                + "WHERE car_id = ? AND is_deleted = false";
-        try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement =
-                        connection.prepareStatement(query)) {
-            statement.setLong(1, carId);
-            ResultSet resultSet = statement.executeQuery();
-            List<Driver> drivers = new ArrayList<>();
-            while (resultSet.next()) {
-                drivers.add(parseDriverFromResultSet(resultSet));
+    private Set<Long> getDriverIds(Car car) {
+        Set<Long> driverIds = new LinkedHashSet<>();
+        if (car.getDrivers() == null) {
+            return driverIds;
+        }
+        for (Driver driver : car.getDrivers()) {
+            if (!driverIds.add(driver.getId())) {
+                throw new DataProcessingException("Driver with id "
+                        + driver.getId() + " is assigned to car " + car.getId() + " twice");
             }
-            return drivers;
-        } catch (SQLException e) {
-            logger.error("Can't get all drivers. Params: car Id={}", carId, e);
-            throw new DataProcessingException("Can't get all drivers by car id" + carId, e);
         }
+        return driverIds;
+    }
+
+    /**
+     * Fills the drivers of all given cars using one query per {@code DRIVERS_BATCH_SIZE}
+     * cars instead of one query per car.
+     */
+    private void loadDrivers(Connection connection, List<Car> cars) throws SQLException {
+        Map<Long, Car> carsById = new HashMap<>();
+        for (Car car : cars) {
+            car.setDrivers(new ArrayList<>());
+            carsById.put(car.getId(), car);
+        }
+        List<Long> carIds = new ArrayList<>(carsById.keySet());
+        for (int from = 0; from < carIds.size(); from += DRIVERS_BATCH_SIZE) {
+            List<Long> batch = carIds.subList(from,
+                    Math.min(from + DRIVERS_BATCH_SIZE, carIds.size()));
+            String query = "SELECT cd.car_id, id, name, license_number, login "
+                    + "FROM cars_drivers cd "
+                    + "JOIN drivers d ON cd.driver_id = d.id "
+                    + "WHERE cd.car_id IN (" + placeholders(batch.size()) + ") "
+                    + "AND is_deleted = FALSE";
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                for (int i = 0; i < batch.size(); i++) {
+                    statement.setLong(i + 1, batch.get(i));
+                }
+                ResultSet resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    carsById.get(resultSet.getObject("car_id", Long.class)).getDrivers()
+                            .add(parseDriverFromResultSet(resultSet));
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps cars read with {@link DriverAggregate#COLUMNS}. The few cars whose aggregate
+     * can't be decoded, e.g. because it was cut at {@code group_concat_max_len}, get
+     * their drivers from a second query.
+     */
+    private List<Car> parseAggregatedCars(Connection connection, ResultSet resultSet)
+            throws SQLException {
+        List<Car> cars = new ArrayList<>();
+        List<Car> undecodedCars = new ArrayList<>();
+        while (resultSet.next()) {
+            Car car = parseCarFromResultSet(resultSet);
+            car.setDrivers(new ArrayList<>());
+            if (!DriverAggregate.decode(resultSet.getString("drivers"),
+                    resultSet.getInt("driver_count"), car.getDrivers())) {
+                undecodedCars.add(car);
+            }
+            cars.add(car);
+        }
+        if (!undecodedCars.isEmpty()) {
+            logger.warn("Can't decode the drivers of {} cars, check group_concat_max_len",
+                    undecodedCars.size());
+            loadDrivers(connection, undecodedCars);
+        }
+        return cars;
+    }
+
+    private String placeholders(int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(i == 0 ? "?" : ", ?");
+        }
+        return builder.toString();
     }
 
     private Driver parseDriverFromResultSet(ResultSet resultSet) throws SQLException {
-        logger.debug("Method parseDriverFromResultSet was called");
         Long driverId = resultSet.getObject("id", Long.class);
         String name = resultSet.getString("name");
         String licenseNumber = resultSet.getString("license_number");
@@ -243,8 +503,16 @@ public class CarDaoImpl implements CarDao {
         return driver;
     }
 
+    private Driver parseJoinedDriverFromResultSet(ResultSet resultSet) throws SQLException {
+        Driver driver = new Driver();
+        driver.setId(resultSet.getObject("driver_id", Long.class));
+        driver.setName(resultSet.getString("driver_name"));
+        driver.setLicenseNumber(resultSet.getString("driver_license_number"));
+        driver.setLogin(resultSet.getString("driver_login"));
+        return driver;
+    }
+
     private Car parseCarFromResultSet(ResultSet resultSet) throws SQLException {
-        logger.debug("Method parseCarFromResultSet was called");
         Long manufacturerId = resultSet.getObject("manufacturer_id", Long.class);
         String manufacturerName = resultSet.getString("manufacturer_name");
         String manufacturerCountry = resultSet.getString("manufacturer_country");
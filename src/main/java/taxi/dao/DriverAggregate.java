@@ -0,0 +1,77 @@
+package taxi.dao;
+
+import java.util.List;
+import taxi.model.Driver;
+
+/**
+ * SQL and decoder for the drivers of a car aggregated into one column. Every driver ends
+ * with the record separator and its fields are separated by the unit separator, control
+ * characters that names, license numbers and logins don't contain. Since even the last
+ * driver is terminated, an aggregate the server cut anywhere, even inside the last field,
+ * no longer ends with the terminator. The decoder walks the string once with
+ * {@code indexOf} and creates nothing but the drivers and their field strings.
+ */
+class DriverAggregate {
+    static final char DRIVER_TERMINATOR = '\u001e';
+    static final char FIELD_SEPARATOR = '\u001f';
+    static final String COLUMNS = "COUNT(d.id) AS driver_count, "
+            + "GROUP_CONCAT(CASE WHEN d.id IS NOT NULL THEN CONCAT(CONCAT_WS('"
+            + FIELD_SEPARATOR + "', d.id, d.name, d.license_number, d.login), '"
+            + DRIVER_TERMINATOR + "') END ORDER BY d.id SEPARATOR '') AS drivers ";
+    static final String JOINS = " LEFT JOIN cars_drivers cd ON c.id = cd.car_id"
+            + " LEFT JOIN drivers d ON cd.driver_id = d.id AND d.is_deleted = FALSE";
+
+    /**
+     * Adds the drivers encoded in the aggregate to the list. Returns false, leaving the
+     * list in an unspecified state, when the aggregate doesn't hold exactly
+     * {@code expectedCount} well-formed and terminated drivers, e.g. because the server
+     * cut it at {@code group_concat_max_len}.
+     */
+    static boolean decode(String aggregate, int expectedCount, List<Driver> drivers) {
+        if (aggregate == null || aggregate.isEmpty()) {
+            return expectedCount == 0;
+        }
+        int length = aggregate.length();
+        if (aggregate.charAt(length - 1) != DRIVER_TERMINATOR) {
+            return false;
+        }
+        int count = 0;
+        int start = 0;
+        while (start < length) {
+            int end = aggregate.indexOf(DRIVER_TERMINATOR, start);
+            Driver driver = decodeDriver(aggregate, start, end);
+            if (driver == null) {
+                return false;
+            }
+            drivers.add(driver);
+            count++;
+            start = end + 1;
+        }
+        return count == expectedCount;
+    }
+
+    private static Driver decodeDriver(String aggregate, int start, int end) {
+        int nameStart = aggregate.indexOf(FIELD_SEPARATOR, start) + 1;
+        int licenseStart = nameStart == 0 ? 0
+                : aggregate.indexOf(FIELD_SEPARATOR, nameStart) + 1;
+        int loginStart = licenseStart == 0 ? 0
+                : aggregate.indexOf(FIELD_SEPARATOR, licenseStart) + 1;
+        if (loginStart == 0 || loginStart > end) {
+            return null;
+        }
+        int extraSeparator = aggregate.indexOf(FIELD_SEPARATOR, loginStart);
+        if (extraSeparator >= 0 && extraSeparator < end) {
+            return null;
+        }
+        Driver driver = new Driver();
+        try {
+            driver.setId(Long.parseLong(aggregate, start, nameStart - 1, 10));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        driver.setName(aggregate.substring(nameStart, licenseStart - 1));
+        driver.setLicenseNumber(aggregate.substring(licenseStart, loginStart - 1));
+        driver.setLogin(aggregate.substring(loginStart, end));
+        return driver;
+    }
+}
@@ -1,8 +1,21 @@
 package taxi.dao;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import taxi.model.Driver;
 
 public interface DriverDao extends GenericDao<Driver> {
     Optional<Driver> findByLogin(String login);
+
+    /**
+     * Returns the active drivers among the given ids, in no particular order.
+     */
+    List<Driver> getAllByIds(Collection<Long> ids);
+
+    /**
+     * Returns those of the logins that active drivers already use.
+     */
+    Set<String> findExistingLogins(Collection<String> logins);
 }
@@ -6,27 +6,42 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.event.EntityEvents;
+import taxi.event.EntityType;
 import taxi.exception.DataProcessingException;
 import taxi.exception.LoginDuplicationException;
 import taxi.lib.Dao;
 import taxi.model.Driver;
+import taxi.util.ApplicationProperties;
+import taxi.util.BloomFilter;
 import taxi.util.ConnectionUtil;
 
 @Dao
 public class DriverDaoImpl implements DriverDao {
     private static final Logger logger = LogManager.getLogger(DriverDaoImpl.class);
+    private static final int MYSQL_DUPLICATE_KEY_ERROR = 1062;
+    private static final String DUPLICATE_KEY_SQL_STATE = "23505";
+    private static final int LOGIN_FILTER_EXPECTED_SIZE =
+            ApplicationProperties.getInt("drivers.login.filter.expected.size", 100000);
+    private static final double LOGIN_FILTER_FALSE_POSITIVE_PROBABILITY = 0.01;
+    private static final int IDS_BATCH_SIZE = 500;
+    private final AtomicReference<BloomFilter> loginFilter = new AtomicReference<>();
 
     @Override
     public Driver create(Driver driver) {
-        logger.debug("Method create was called. Params: name={}, license number={}, login={}",
-                driver.getName(), driver.getLicenseNumber(), driver.getLogin());
         String login = driver.getLogin();
-        if (checkLoginIsUnique(login)) {
+        if (login != null && getLoginFilter().mightContain(login) && checkLoginIsUnique(login)) {
             logger.error("Login duplication error. Params: login={}", driver.getLogin());
             throw new LoginDuplicationException("Driver with the same login already exists. "
                     + "Please, enter another login");
@@ -45,35 +60,147 @@ public class DriverDaoImpl implements DriverDao {
             if (resultSet.next()) {
                 driver.setId(resultSet.getObject(1, Long.class));
             }
+            getLoginFilter().put(login);
+            EntityEvents.publish(EntityType.DRIVER, driver.getId());
             return driver;
         } catch (SQLException e) {
+            if (isDuplicateKey(e)) {
+                logger.error("Login duplication error. Params: login={}", login, e);
+                throw new LoginDuplicationException("Driver with the same login already "
+                        + "exists. Please, enter another login");
+            }
             logger.error("Can't create a driver. Params: name={}, license number={}, login={}",
                     driver.getName(), driver.getLicenseNumber(), driver.getLogin(), e);
             throw new DataProcessingException("Can't create a driver " + driver, e);
         }
     }
 
-    public boolean checkLoginIsUnique(String login) {
-        logger.debug("Method checkLoginIsUnique was called. Params: login={}", login);
-        String query = "SELECT login FROM drivers WHERE is_deleted = FALSE";
-        List<String> logins = new ArrayList<>();
+    @Override
+    public List<Driver> createAll(List<Driver> drivers) {
+        if (drivers.isEmpty()) {
+            return drivers;
+        }
+        String query = "INSERT INTO drivers (name, license_number, login, password) "
+                + "VALUES (?, ?, ?, ?)";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement = connection.prepareStatement(query,
                         Statement.RETURN_GENERATED_KEYS)) {
+            for (Driver driver : drivers) {
+                statement.setString(1, driver.getName());
+                statement.setString(2, driver.getLicenseNumber());
+                statement.setString(3, driver.getLogin());
+                statement.setString(4, driver.getPassword());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            List<Long> ids = new ArrayList<>(drivers.size());
+            ResultSet resultSet = statement.getGeneratedKeys();
+            for (int i = 0; i < drivers.size() && resultSet.next(); i++) {
+                drivers.get(i).setId(resultSet.getObject(1, Long.class));
+                ids.add(drivers.get(i).getId());
+            }
+            BloomFilter filter = getLoginFilter();
+            for (Driver driver : drivers) {
+                filter.put(driver.getLogin());
+            }
+            EntityEvents.publishAll(EntityType.DRIVER, ids);
+            return drivers;
+        } catch (SQLException e) {
+            if (isDuplicateKey(e)) {
+                logger.error("Login duplication error in a batch of {} drivers", drivers.size(),
+                        e);
+                throw new LoginDuplicationException("Some of the drivers use logins that "
+                        + "already exist");
+            }
+            logger.error("Can't create drivers. Params: count={}", drivers.size(), e);
+            throw new DataProcessingException("Can't create " + drivers.size() + " drivers", e);
+        }
+    }
+
+    @Override
+    public Set<String> findExistingLogins(Collection<String> logins) {
+        Set<String> existingLogins = new HashSet<>();
+        if (logins.isEmpty()) {
+            return existingLogins;
+        }
+        String query = "SELECT active_login FROM drivers WHERE active_login IN ("
+                + String.join(",", Collections.nCopies(logins.size(), "?")) + ")";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            int index = 1;
+            for (String login : logins) {
+                statement.setString(index++, login);
+            }
             ResultSet resultSet = statement.executeQuery();
             while (resultSet.next()) {
-                logins.add(resultSet.getString("login"));
+                existingLogins.add(resultSet.getString("active_login"));
             }
+            return existingLogins;
+        } catch (SQLException e) {
+            logger.error("Can't check logins. Params: count={}", logins.size(), e);
+            throw new DataProcessingException("Can't check " + logins.size() + " logins", e);
+        }
+    }
+
+    /**
+     * Returns true when an active driver already uses the login. The lookup goes through
+     * the unique index on {@code drivers.active_login}.
+     */
+    public boolean checkLoginIsUnique(String login) {
+        String query = "SELECT 1 FROM drivers WHERE active_login = ?";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, login);
+            return statement.executeQuery().next();
         } catch (SQLException e) {
-            logger.error("Can't get any login", e);
-            throw new DataProcessingException("Can't get any login", e);
+            logger.error("Can't check a login. Params: login={}", login, e);
+            throw new DataProcessingException("Can't check a login " + login, e);
         }
-        return logins.contains(login);
+    }
+
+    /**
+     * Logins of active drivers, loaded once on first use and extended on every create and
+     * update. Lets registration skip the lookup for logins that are certainly new; deleted
+     * logins stay in the filter and only cost an extra lookup.
+     */
+    private BloomFilter getLoginFilter() {
+        BloomFilter filter = loginFilter.get();
+        if (filter != null) {
+            return filter;
+        }
+        synchronized (loginFilter) {
+            if (loginFilter.get() == null) {
+                loginFilter.set(loadLoginFilter());
+            }
+            return loginFilter.get();
+        }
+    }
+
+    private BloomFilter loadLoginFilter() {
+        BloomFilter filter = new BloomFilter(LOGIN_FILTER_EXPECTED_SIZE,
+                LOGIN_FILTER_FALSE_POSITIVE_PROBABILITY);
+        String query = "SELECT active_login FROM drivers WHERE active_login IS NOT NULL";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement =
+                        ConnectionUtil.prepareStreamingStatement(connection, query)) {
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                filter.put(resultSet.getString("active_login"));
+            }
+            return filter;
+        } catch (SQLException e) {
+            logger.error("Can't load logins", e);
+            throw new DataProcessingException("Can't load logins", e);
+        }
+    }
+
+    private boolean isDuplicateKey(SQLException e) {
+        return e.getErrorCode() == MYSQL_DUPLICATE_KEY_ERROR
+                || DUPLICATE_KEY_SQL_STATE.equals(e.getSQLState());
     }
 
     @Override
     public Optional<Driver> get(Long id) {
-        logger.debug("Method get a driver was called. Params: driver Id={}", id);
         String query = "SELECT * FROM drivers WHERE id = ? AND is_deleted = FALSE";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
@@ -92,7 +219,6 @@ public class DriverDaoImpl implements DriverDao {
 
     @Override
     public List<Driver> getAll() {
-        logger.debug("Method getAll drivers was called");
         String query = "SELECT * FROM drivers WHERE is_deleted = FALSE";
         List<Driver> drivers = new ArrayList<>();
         try (Connection connection = ConnectionUtil.getConnection();
@@ -108,9 +234,74 @@ public class DriverDaoImpl implements DriverDao {
         }
     }
 
+    @Override
+    public List<Driver> getAllByIds(Collection<Long> ids) {
+        List<Long> idList = new ArrayList<>(ids);
+        List<Driver> drivers = new ArrayList<>();
+        try (Connection connection = ConnectionUtil.getConnection()) {
+            for (int from = 0; from < idList.size(); from += IDS_BATCH_SIZE) {
+                List<Long> batch = idList.subList(from,
+                        Math.min(from + IDS_BATCH_SIZE, idList.size()));
+                String query = "SELECT * FROM drivers WHERE id IN ("
+                        + String.join(",", Collections.nCopies(batch.size(), "?"))
+                        + ") AND is_deleted = FALSE";
+                try (PreparedStatement statement = connection.prepareStatement(query)) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        statement.setLong(i + 1, batch.get(i));
+                    }
+                    ResultSet resultSet = statement.executeQuery();
+                    while (resultSet.next()) {
+                        drivers.add(parseDriverFromResultSet(resultSet));
+                    }
+                }
+            }
+            return drivers;
+        } catch (SQLException e) {
+            logger.error("Can't get drivers by ids. Params: count={}", ids.size(), e);
+            throw new DataProcessingException("Can't get " + ids.size() + " drivers by ids", e);
+        }
+    }
+
+    @Override
+    public List<Driver> getPage(Long afterId, int limit) {
+        String query = "SELECT * FROM drivers WHERE id > ? AND is_deleted = FALSE "
+                + "ORDER BY id LIMIT ?";
+        List<Driver> drivers = new ArrayList<>();
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, afterId == null ? 0 : afterId);
+            statement.setInt(2, limit);
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                drivers.add(parseDriverFromResultSet(resultSet));
+            }
+            return drivers;
+        } catch (SQLException e) {
+            logger.error("Can't get a page of drivers. Params: after Id={}, limit={}",
+                    afterId, limit, e);
+            throw new DataProcessingException("Can't get a page of drivers after id "
+                    + afterId, e);
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<? super Driver> action) {
+        String query = "SELECT * FROM drivers WHERE is_deleted = FALSE ORDER BY id";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement =
+                        ConnectionUtil.prepareStreamingStatement(connection, query)) {
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                action.accept(parseDriverFromResultSet(resultSet));
+            }
+        } catch (SQLException e) {
+            logger.error("Can't stream drivers", e);
+            throw new DataProcessingException("Can't stream drivers.", e);
+        }
+    }
+
     @Override
     public Driver update(Driver driver) {
-        logger.debug("Method update a driver was called. Params: driver Id={}", driver.getId());
         Driver driverDataFromDB = get(driver.getId()).orElseThrow(() ->
                 new NoSuchElementException("Can't find a driver by id " + driver.getId()));
         if (!driverDataFromDB.getLogin().equals(driver.getLogin())) {
@@ -128,8 +319,15 @@ public class DriverDaoImpl implements DriverDao {
             statement.setString(4, driver.getPassword());
             statement.setLong(5, driver.getId());
             statement.executeUpdate();
+            getLoginFilter().put(driver.getLogin());
+            EntityEvents.publish(EntityType.DRIVER, driver.getId());
             return driver;
         } catch (SQLException e) {
+            if (isDuplicateKey(e)) {
+                logger.error("Login duplication error. Params: login={}", driver.getLogin(), e);
+                throw new LoginDuplicationException("Driver with the same login already "
+                        + "exists. Please, enter another login");
+            }
             logger.error("Can't update a driver. Params: driver Id={}", driver.getId(), e);
             throw new DataProcessingException("Can't update a driver" + driver, e);
         }
@@ -137,12 +335,16 @@ public class DriverDaoImpl implements DriverDao {
 
     @Override
     public boolean delete(Long id) {
-        logger.debug("Method delete a driver was called. Params: driver Id={}", id);
-        String query = "UPDATE drivers SET is_deleted = TRUE WHERE id = ?";
+        String query = "UPDATE drivers SET is_deleted = TRUE, "
+                + "deleted_at = COALESCE(deleted_at, CURRENT_TIMESTAMP) WHERE id = ?";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setLong(1, id);
-            return statement.executeUpdate() > 0;
+            boolean deleted = statement.executeUpdate() > 0;
+            if (deleted) {
+                EntityEvents.publish(EntityType.DRIVER, id);
+            }
+            return deleted;
         } catch (SQLException e) {
             logger.error("Can't delete a driver. Params: driver Id={}", id, e);
             throw new DataProcessingException("Can't delete a driver with id " + id, e);
@@ -150,7 +352,6 @@ public class DriverDaoImpl implements DriverDao {
     }
 
     private Driver parseDriverFromResultSet(ResultSet resultSet) throws SQLException {
-        logger.debug("Method parseDriverFromResultSet was called");
         Long id = resultSet.getObject("id", Long.class);
         String name = resultSet.getString("name");
         String licenseNumber = resultSet.getString("license_number");
@@ -167,8 +368,7 @@ public class DriverDaoImpl implements DriverDao {
 
     @Override
     public Optional<Driver> findByLogin(String login) {
-        logger.debug("Method findByLogin a driver was called. Params: login={}", login);
-        String query = "SELECT * FROM drivers WHERE login = ? AND is_deleted = FALSE";
+        String query = "SELECT * FROM drivers WHERE active_login = ?";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, login);
@@ -2,14 +2,33 @@ package taxi.dao;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface GenericDao<T> {
     T create(T element);
 
+    /**
+     * Inserts all elements with one JDBC batch and sets their generated ids. Callers
+     * split large inputs into chunks; the whole list is held in memory.
+     */
+    List<T> createAll(List<T> elements);
+
     Optional<T> get(Long id);
 
     List<T> getAll();
 
+    /**
+     * Returns at most {@code limit} elements ordered by id, starting right after
+     * {@code afterId} or from the beginning when it is null.
+     */
+    List<T> getPage(Long afterId, int limit);
+
+    /**
+     * Passes every element to {@code action} while reading them from a forward-only
+     * cursor, so the whole table is never held in memory.
+     */
+    void forEach(Consumer<? super T> action);
+
     T update(T element);
 
     boolean delete(Long id);
@@ -8,8 +8,11 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.event.EntityEvents;
+import taxi.event.EntityType;
 import taxi.exception.DataProcessingException;
 import taxi.lib.Dao;
 import taxi.model.Manufacturer;
@@ -21,8 +24,6 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
 
     @Override
     public Manufacturer create(Manufacturer manufacturer) {
-        logger.debug("Method create a manufacturer was called. Params: name={}, country={}",
-                manufacturer.getName(), manufacturer.getCountry());
         String query = "INSERT INTO manufacturers (name, country) VALUES (?,?)";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement
@@ -32,6 +33,7 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
             if (resultSet.next()) {
                 manufacturer.setId(resultSet.getObject(1, Long.class));
             }
+            EntityEvents.publish(EntityType.MANUFACTURER, manufacturer.getId());
             return manufacturer;
         } catch (SQLException e) {
             logger.error("Can't create a manufacturer. Params: name={}, country={}",
@@ -40,9 +42,36 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
         }
     }
 
+    @Override
+    public List<Manufacturer> createAll(List<Manufacturer> manufacturers) {
+        if (manufacturers.isEmpty()) {
+            return manufacturers;
+        }
+        String query = "INSERT INTO manufacturers (name, country) VALUES (?,?)";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement
+                        = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            for (Manufacturer manufacturer : manufacturers) {
+                setUpdate(statement, manufacturer).addBatch();
+            }
+            statement.executeBatch();
+            List<Long> ids = new ArrayList<>(manufacturers.size());
+            ResultSet resultSet = statement.getGeneratedKeys();
+            for (int i = 0; i < manufacturers.size() && resultSet.next(); i++) {
+                manufacturers.get(i).setId(resultSet.getObject(1, Long.class));
+                ids.add(manufacturers.get(i).getId());
+            }
+            EntityEvents.publishAll(EntityType.MANUFACTURER, ids);
+            return manufacturers;
+        } catch (SQLException e) {
+            logger.error("Can't create manufacturers. Params: count={}", manufacturers.size(), e);
+            throw new DataProcessingException("Can't create " + manufacturers.size()
+                    + " manufacturers", e);
+        }
+    }
+
     @Override
     public Optional<Manufacturer> get(Long id) {
-        logger.debug("Method get a manufacturer was called. Params: manufacturer Id={}", id);
         String query = "SELECT * FROM manufacturers WHERE id = ? AND is_deleted = FALSE";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
@@ -61,7 +90,6 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
 
     @Override
     public List<Manufacturer> getAll() {
-        logger.debug("Method getAll manufacturers was called");
         String query = "SELECT * FROM manufacturers WHERE is_deleted = FALSE";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
@@ -77,10 +105,46 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
         }
     }
 
+    @Override
+    public List<Manufacturer> getPage(Long afterId, int limit) {
+        String query = "SELECT * FROM manufacturers WHERE id > ? AND is_deleted = FALSE "
+                + "ORDER BY id LIMIT ?";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, afterId == null ? 0 : afterId);
+            statement.setInt(2, limit);
+            List<Manufacturer> manufacturers = new ArrayList<>();
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                manufacturers.add(parseManufacturerFromResultSet(resultSet));
+            }
+            return manufacturers;
+        } catch (SQLException e) {
+            logger.error("Can't get a page of manufacturers. Params: after Id={}, limit={}",
+                    afterId, limit, e);
+            throw new DataProcessingException("Can't get a page of manufacturers after id "
+                    + afterId, e);
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<? super Manufacturer> action) {
+        String query = "SELECT * FROM manufacturers WHERE is_deleted = FALSE ORDER BY id";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement =
+                        ConnectionUtil.prepareStreamingStatement(connection, query)) {
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                action.accept(parseManufacturerFromResultSet(resultSet));
+            }
+        } catch (SQLException e) {
+            logger.error("Can't stream manufacturers", e);
+            throw new DataProcessingException("Can't stream manufacturers.", e);
+        }
+    }
+
     @Override
     public Manufacturer update(Manufacturer manufacturer) {
-        logger.debug("Method update a manufacturer was called. Params: manufacturer name={}, "
-                + "manufacturer country={}", manufacturer.getName(), manufacturer.getCountry());
         String query = "UPDATE manufacturers SET name = ?, country = ?"
                 + " WHERE id = ? AND is_deleted = FALSE";
         try (Connection connection = ConnectionUtil.getConnection();
@@ -88,6 +152,7 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
                         = setUpdate(connection.prepareStatement(query), manufacturer)) {
             statement.setLong(3, manufacturer.getId());
             statement.executeUpdate();
+            EntityEvents.publish(EntityType.MANUFACTURER, manufacturer.getId());
             return manufacturer;
         } catch (SQLException e) {
             logger.error("Can't update a manufacturer. Params: manufacturer name={}, "
@@ -100,12 +165,16 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
 
     @Override
     public boolean delete(Long id) {
-        logger.debug("Method delete a manufacturer was called. Params: manufacturer Id={}", id);
-        String query = "UPDATE manufacturers SET is_deleted = TRUE WHERE id = ?";
+        String query = "UPDATE manufacturers SET is_deleted = TRUE, "
+                + "deleted_at = COALESCE(deleted_at, CURRENT_TIMESTAMP) WHERE id = ?";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setLong(1, id);
-            return statement.executeUpdate() > 0;
+            boolean deleted = statement.executeUpdate() > 0;
+            if (deleted) {
+                EntityEvents.publish(EntityType.MANUFACTURER, id);
+            }
+            return deleted;
         } catch (SQLException e) {
             logger.error("Can't delete a manufacturer. Params: manufacturer Id={}", id, e);
             throw new DataProcessingException("Can't delete a manufacturer by id " + id, e);
@@ -113,7 +182,6 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
     }
 
     private Manufacturer parseManufacturerFromResultSet(ResultSet resultSet) throws SQLException {
-        logger.debug("Method parseManufacturerFromResultSet was called");
         Long id = resultSet.getObject("id", Long.class);
         String name = resultSet.getString("name");
         String country = resultSet.getString("country");
@@ -0,0 +1,22 @@
+package taxi.event;
+
+import java.util.Collection;
+
+public interface EntityChangeListener {
+    /**
+     * Called after an entity was created, updated or deleted. For
+     * {@link EntityType#CAR_ASSIGNMENT} the id is the id of the driver whose set of cars
+     * changed.
+     */
+    void onChange(EntityType type, Long id);
+
+    /**
+     * Called once for entities changed together, e.g. by a bulk insert. Listeners that can
+     * handle them at once more cheaply than one by one override it.
+     */
+    default void onChanges(EntityType type, Collection<Long> ids) {
+        for (Long id : ids) {
+            onChange(type, id);
+        }
+    }
+}
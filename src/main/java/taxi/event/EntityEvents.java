@@ -0,0 +1,60 @@
+package taxi.event;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.util.TransactionManager;
+
+/**
+ * Node-wide notifications about changed entities, used to keep in-memory caches and
+ * indexes in line with the database. Changes made inside a transaction are delivered
+ * only after it commits and are dropped if it rolls back.
+ */
+public class EntityEvents {
+    private static final Logger logger = LogManager.getLogger(EntityEvents.class);
+    private static final List<EntityChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public static void subscribe(EntityChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public static void unsubscribe(EntityChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    public static void publish(EntityType type, Long id) {
+        TransactionManager.afterCommit(() -> notifyListeners(type, id));
+    }
+
+    public static void publishAll(EntityType type, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> changedIds = List.copyOf(ids);
+        TransactionManager.afterCommit(() -> notifyListeners(type, changedIds));
+    }
+
+    private static void notifyListeners(EntityType type, List<Long> ids) {
+        for (EntityChangeListener listener : listeners) {
+            try {
+                listener.onChanges(type, ids);
+            } catch (RuntimeException e) {
+                logger.error("Listener {} failed on a change of {} {} entities",
+                        listener, ids.size(), type, e);
+            }
+        }
+    }
+
+    private static void notifyListeners(EntityType type, Long id) {
+        for (EntityChangeListener listener : listeners) {
+            try {
+                listener.onChange(type, id);
+            } catch (RuntimeException e) {
+                logger.error("Listener {} failed on a change of {} with id {}",
+                        listener, type, id, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package taxi.event;
+
+public enum EntityType {
+    CAR,
+    DRIVER,
+    MANUFACTURER,
+    CAR_ASSIGNMENT
+}
@@ -0,0 +1,53 @@
+package taxi.event;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Version counter and last modification time of every entity type, bumped by the
+ * entity events of this node. The tag of a set of types changes whenever one of them
+ * changes and is prefixed with an epoch chosen at startup, so tags handed out before a
+ * restart never match again.
+ */
+public class EntityVersions {
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36)
+            + Integer.toString(ThreadLocalRandom.current().nextInt(Character.MAX_RADIX),
+                    Character.MAX_RADIX);
+    private static final AtomicLongArray versions =
+            new AtomicLongArray(EntityType.values().length);
+    private static final AtomicLongArray modifiedAt =
+            new AtomicLongArray(EntityType.values().length);
+
+    static {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < modifiedAt.length(); i++) {
+            modifiedAt.set(i, now);
+        }
+        EntityEvents.subscribe(EntityVersions::onChange);
+    }
+
+    public static long getVersion(EntityType type) {
+        return versions.get(type.ordinal());
+    }
+
+    public static long getLastModified(EntityType... types) {
+        long lastModified = 0;
+        for (EntityType type : types) {
+            lastModified = Math.max(lastModified, modifiedAt.get(type.ordinal()));
+        }
+        return lastModified;
+    }
+
+    public static String getTag(EntityType... types) {
+        StringBuilder tag = new StringBuilder(EPOCH);
+        for (EntityType type : types) {
+            tag.append('-').append(getVersion(type));
+        }
+        return tag.toString();
+    }
+
+    private static void onChange(EntityType type, Long id) {
+        modifiedAt.accumulateAndGet(type.ordinal(), System.currentTimeMillis(), Math::max);
+        versions.incrementAndGet(type.ordinal());
+    }
+}
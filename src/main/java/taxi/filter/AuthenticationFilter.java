@@ -2,6 +2,7 @@ package taxi.filter;
 
 import java.io.IOException;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -13,18 +14,32 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import taxi.lib.Injector;
-import taxi.service.DriverService;
+import taxi.model.Principal;
+import taxi.service.PrincipalService;
+import taxi.util.ApplicationProperties;
 
+/**
+ * Lets a logged-in driver through, except to the {@code /admin} pages, which are only
+ * open to the drivers listed in {@code admin.logins}.
+ */
 public class AuthenticationFilter implements Filter {
     private static final Injector injector = Injector.getInstance("taxi");
-    private final DriverService driverService = (DriverService) injector
-            .getInstance(DriverService.class);
+    private static final String ADMIN_PATH = "/admin/";
+    private final PrincipalService principalService = (PrincipalService) injector
+            .getInstance(PrincipalService.class);
     private Set<String> allowedUrls = new HashSet<>();
+    private Set<String> adminLogins = new HashSet<>();
 
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
         allowedUrls.add("/login");
         allowedUrls.add("/drivers/add");
+        allowedUrls.add("/metrics");
+        for (String login : ApplicationProperties.getString("admin.logins", "").split(",")) {
+            if (!login.isBlank()) {
+                adminLogins.add(login.trim());
+            }
+        }
     }
 
     @Override
@@ -34,10 +49,24 @@ public class AuthenticationFilter implements Filter {
         HttpServletResponse resp = (HttpServletResponse) servletResponse;
         HttpSession session = req.getSession();
         Long driverId = (Long) session.getAttribute("driver_id");
-        if (driverId != null || allowedUrls.contains(req.getServletPath())) {
+        if (allowedUrls.contains(req.getServletPath())) {
             filterChain.doFilter(req, resp);
             return;
         }
+        if (driverId != null) {
+            Optional<Principal> principal = principalService.getPrincipal(driverId);
+            if (principal.isPresent()) {
+                if (req.getServletPath().startsWith(ADMIN_PATH)
+                        && !adminLogins.contains(principal.get().getDriver().getLogin())) {
+                    resp.sendError(HttpServletResponse.SC_FORBIDDEN);
+                    return;
+                }
+                req.setAttribute("principal", principal.get());
+                filterChain.doFilter(req, resp);
+                return;
+            }
+            session.invalidate();
+        }
         resp.sendRedirect(req.getContextPath() + "/login");
     }
 }
@@ -0,0 +1,108 @@
+package taxi.filter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletMapping;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.controller.AsyncRequests;
+import taxi.metrics.MetricsRegistry;
+import taxi.metrics.Timer;
+import taxi.util.ConnectionPool;
+
+/**
+ * Times every request into the {@code http_request_seconds} metric, labelled with the
+ * servlet that handled it and the HTTP method. Requests that end with a server error or
+ * an exception are counted as failed. Asynchronous requests are timed until they
+ * complete, and their connections include those borrowed on the {@code DaoExecutor},
+ * which {@link AsyncRequests} adds to a counter the filter leaves in the request.
+ */
+public class MetricsFilter implements Filter {
+    private static final int SERVER_ERROR = 500;
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+                         FilterChain filterChain) throws IOException, ServletException {
+        HttpServletRequest req = (HttpServletRequest) servletRequest;
+        HttpServletResponse resp = (HttpServletResponse) servletResponse;
+        LongAdder asyncConnections = new LongAdder();
+        req.setAttribute(AsyncRequests.CONNECTIONS_ATTRIBUTE, asyncConnections);
+        long borrowed = ConnectionPool.getBorrowedByCurrentThread();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(req, resp);
+        } catch (IOException | ServletException | RuntimeException e) {
+            timer(req).recordError(System.nanoTime() - start,
+                    ConnectionPool.getBorrowedByCurrentThread() - borrowed);
+            throw e;
+        }
+        long connections = ConnectionPool.getBorrowedByCurrentThread() - borrowed;
+        if (req.isAsyncStarted()) {
+            req.getAsyncContext().addListener(new CompletionListener(timer(req), start,
+                    connections, asyncConnections));
+        } else {
+            record(timer(req), resp, System.nanoTime() - start, connections);
+        }
+    }
+
+    private static Timer timer(HttpServletRequest req) {
+        HttpServletMapping mapping = req.getHttpServletMapping();
+        String servlet = mapping == null || mapping.getServletName() == null
+                ? "unknown" : mapping.getServletName();
+        return MetricsRegistry.timer("http_request_seconds", "Latency of HTTP requests",
+                MetricsRegistry.label("servlet", servlet) + ","
+                        + MetricsRegistry.label("method", req.getMethod()));
+    }
+
+    private static void record(Timer timer, HttpServletResponse resp, long elapsedNanos,
+                               long connections) {
+        if (resp.getStatus() >= SERVER_ERROR) {
+            timer.recordError(elapsedNanos, connections);
+        } else {
+            timer.record(elapsedNanos, 0, connections);
+        }
+    }
+
+    private static class CompletionListener implements AsyncListener {
+        private final Timer timer;
+        private final long start;
+        private final long connections;
+        private final LongAdder asyncConnections;
+
+        CompletionListener(Timer timer, long start, long connections,
+                           LongAdder asyncConnections) {
+            this.timer = timer;
+            this.start = start;
+            this.connections = connections;
+            this.asyncConnections = asyncConnections;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(timer, (HttpServletResponse) event.getSuppliedResponse(),
+                    System.nanoTime() - start, connections + asyncConnections.sum());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // the request still completes afterwards and is recorded then
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // the request still completes afterwards and is recorded then
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
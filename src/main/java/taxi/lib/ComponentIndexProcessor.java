@@ -0,0 +1,92 @@
+package taxi.lib;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes the names of all {@link Dao} and {@link Service} classes to
+ * {@value Injector#COMPONENT_INDEX}, so that {@link Injector} doesn't have to scan the
+ * classpath at startup. Entries of an index left by a previous incremental build are
+ * kept, since only the changed sources are compiled then.
+ */
+@SupportedAnnotationTypes({"taxi.lib.Dao", "taxi.lib.Service"})
+public class ComponentIndexProcessor extends AbstractProcessor {
+    private final Set<String> components = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    components.add(processingEnv.getElementUtils()
+                            .getBinaryName((TypeElement) element).toString());
+                }
+            }
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        if (components.isEmpty()) {
+            return;
+        }
+        components.addAll(readPreviousIndex());
+        try {
+            FileObject index = processingEnv.getFiler().createResource(
+                    StandardLocation.CLASS_OUTPUT, "", Injector.COMPONENT_INDEX);
+            try (Writer writer = index.openWriter()) {
+                for (String component : components) {
+                    writer.write(component);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Can't write " + Injector.COMPONENT_INDEX + ": " + e);
+        }
+    }
+
+    private Set<String> readPreviousIndex() {
+        Set<String> previousComponents = new TreeSet<>();
+        try {
+            FileObject index = processingEnv.getFiler().getResource(
+                    StandardLocation.CLASS_OUTPUT, "", Injector.COMPONENT_INDEX);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    index.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        previousComponents.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // there is no index from a previous build
+        }
+        return previousComponents;
+    }
+}
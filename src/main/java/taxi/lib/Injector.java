@@ -1,115 +1,169 @@
 package taxi.lib;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Constructor;
+import java.io.InputStreamReader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import taxi.trace.DaoTracer;
 
+/**
+ * Creates one instance of every {@link Dao} and {@link Service} class and injects the
+ * {@link Inject} fields. Implementations are resolved through a map built once from the
+ * component classes, and instances are wired under a lock through method handles that
+ * are looked up once per class, so lookups of existing instances don't use reflection.
+ * DAOs are handed out wrapped by {@link DaoTracer}.
+ */
 public class Injector {
-    private static final Map<String, Injector> injectors = new HashMap<>();
-    private final Map<Class<?>, Object> instanceOfClasses = new HashMap<>();
+    static final String COMPONENT_INDEX = "META-INF/taxi/components";
+    private static final Map<String, Injector> injectors = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Object> instanceOfClasses = new ConcurrentHashMap<>();
+    private final Map<Class<?>, WiringPlan> wiringPlans = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Class<?>> implementations = new HashMap<>();
     private final List<Class<?>> classes = new ArrayList<>();
 
+    /**
+     * Component classes are loaded without being initialized: their static initializers
+     * may look up this injector, which isn't registered until the constructor returns.
+     */
     private Injector(String mainPackageName) {
         try {
-            classes.addAll(getClasses(mainPackageName));
+            List<Class<?>> indexedClasses = getIndexedClasses(mainPackageName);
+            classes.addAll(indexedClasses.isEmpty()
+                    ? getClasses(mainPackageName) : indexedClasses);
         } catch (IOException | ClassNotFoundException e) {
             throw new RuntimeException("Can't get information about all classes", e);
         }
+        for (Class<?> clazz : classes) {
+            if (clazz.isAnnotationPresent(Service.class) || clazz.isAnnotationPresent(Dao.class)) {
+                for (Class<?> singleInterface : clazz.getInterfaces()) {
+                    implementations.putIfAbsent(singleInterface, clazz);
+                }
+            }
+        }
     }
 
     public static Injector getInstance(String mainPackageName) {
-        if (injectors.containsKey(mainPackageName)) {
-            return injectors.get(mainPackageName);
-        }
-        Injector injector = new Injector(mainPackageName);
-        injectors.put(mainPackageName, injector);
-        return injector;
+        return injectors.computeIfAbsent(mainPackageName, Injector::new);
     }
 
     public Object getInstance(Class<?> certainInterface) {
-        Object newInstanceOfClass = null;
         Class<?> clazz = findClassExtendingInterface(certainInterface);
-        Object instanceOfCurrentClass = createInstance(clazz);
-        Field[] declaredFields = clazz.getDeclaredFields();
-        for (Field field : declaredFields) {
-            if (isFieldInitialized(field, instanceOfCurrentClass)) {
-                continue;
-            }
-            if (field.getDeclaredAnnotation(Inject.class) != null) {
-                Object classToInject = getInstance(field.getType());
-                newInstanceOfClass = getNewInstance(clazz);
-                setValueToField(field, newInstanceOfClass, classToInject);
-            } else {
-                throw new RuntimeException("Class " + field.getName() + " in class "
-                        + clazz.getName() + " hasn't annotation Inject");
-            }
+        Object instance = instanceOfClasses.get(clazz);
+        if (instance != null) {
+            return instance;
         }
-        if (newInstanceOfClass == null) {
-            return getNewInstance(clazz);
+        synchronized (this) {
+            return getNewInstance(clazz, new ArrayList<>());
         }
-        return newInstanceOfClass;
     }
 
-    private Class<?> findClassExtendingInterface(Class<?> certainInterface) {
-        for (Class<?> clazz : classes) {
-            Class<?>[] interfaces = clazz.getInterfaces();
-            for (Class<?> singleInterface : interfaces) {
-                if (singleInterface.equals(certainInterface)
-                        && (clazz.isAnnotationPresent(Service.class)
-                        || clazz.isAnnotationPresent(Dao.class))) {
-                    return clazz;
-                }
-            }
+    /**
+     * Creates and wires every component up front, so that configuration errors show up
+     * at startup instead of on the first request that needs the component.
+     */
+    public synchronized void wireAll() {
+        for (Class<?> clazz : new LinkedHashSet<>(implementations.values())) {
+            getNewInstance(clazz, new ArrayList<>());
         }
-        throw new RuntimeException("Can't find class which implements "
-                + certainInterface.getName()
-                + " interface and has valid annotation (Dao or Service)");
     }
 
-    private Object getNewInstance(Class<?> certainClass) {
-        if (instanceOfClasses.containsKey(certainClass)) {
-            return instanceOfClasses.get(certainClass);
+    private Class<?> findClassExtendingInterface(Class<?> certainInterface) {
+        Class<?> clazz = implementations.get(certainInterface);
+        if (clazz == null) {
+            throw new RuntimeException("Can't find class which implements "
+                    + certainInterface.getName()
+                    + " interface and has valid annotation (Dao or Service)");
         }
-        Object newInstance = createInstance(certainClass);
-        instanceOfClasses.put(certainClass, newInstance);
-        return newInstance;
+        return clazz;
     }
 
-    private boolean isFieldInitialized(Field field, Object instance) {
-        field.setAccessible(true);
-        try {
-            return field.get(instance) != null;
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException("Can't get access to field");
+    private Object getNewInstance(Class<?> certainClass, List<Class<?>> path) {
+        Object existingInstance = instanceOfClasses.get(certainClass);
+        if (existingInstance != null) {
+            return existingInstance;
         }
-    }
-
-    private Object createInstance(Class<?> clazz) {
-        Object newInstance;
-        try {
-            Constructor<?> classConstructor = clazz.getConstructor();
-            newInstance = classConstructor.newInstance();
-        } catch (Exception e) {
-            throw new RuntimeException("Can't create object of the class", e);
+        if (path.contains(certainClass)) {
+            StringBuilder cycle = new StringBuilder();
+            for (Class<?> clazz : path.subList(path.indexOf(certainClass), path.size())) {
+                cycle.append(clazz.getName()).append(" -> ");
+            }
+            throw new RuntimeException("Circular dependency: "
+                    + cycle.append(certainClass.getName()));
+        }
+        path.add(certainClass);
+        WiringPlan wiringPlan = wiringPlans.computeIfAbsent(certainClass, WiringPlan::new);
+        Object newInstance = wiringPlan.createInstance();
+        for (InjectionPoint injectionPoint : wiringPlan.injectionPoints) {
+            if (injectionPoint.isInitialized(newInstance)) {
+                continue;
+            }
+            if (!injectionPoint.injected) {
+                throw new RuntimeException("Class " + injectionPoint.name + " in class "
+                        + certainClass.getName() + " hasn't annotation Inject");
+            }
+            Class<?> dependency = findClassExtendingInterface(injectionPoint.type);
+            injectionPoint.setValue(newInstance, getNewInstance(dependency, path));
         }
-        return newInstance;
+        path.remove(path.size() - 1);
+        Object component = certainClass.isAnnotationPresent(Dao.class)
+                ? DaoTracer.trace(newInstance) : newInstance;
+        instanceOfClasses.put(certainClass, component);
+        return component;
     }
 
-    private void setValueToField(Field field, Object instanceOfClass, Object classToInject) {
-        try {
-            field.setAccessible(true);
-            field.set(instanceOfClass, classToInject);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException("Can't set value to field ", e);
+    /**
+     * Loads the components of the given package listed in the index generated by
+     * {@link ComponentIndexProcessor}. Names of classes that no longer exist are skipped,
+     * an incremental build may leave them behind.
+     *
+     * @param packageName The base package
+     * @return The classes, or an empty list if there is no index
+     * @throws IOException if I/O errors occur
+     */
+    private static List<Class<?>> getIndexedClasses(String packageName) throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            throw new RuntimeException("Class loader is null");
+        }
+        Set<String> classNames = new LinkedHashSet<>();
+        Enumeration<URL> indexes = classLoader.getResources(COMPONENT_INDEX);
+        while (indexes.hasMoreElements()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    indexes.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.trim().startsWith(packageName + ".")) {
+                        classNames.add(line.trim());
+                    }
+                }
+            }
+        }
+        List<Class<?>> classes = new ArrayList<>();
+        for (String className : classNames) {
+            try {
+                classes.add(Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException e) {
+                // left in the index by an incremental build after the class was removed
+            }
         }
+        return classes;
     }
+
     /**
      * Scans all classes accessible from the context class loader which
      * belong to the given package and subpackages.
@@ -165,10 +219,79 @@ public class Injector {
                             + file.getName()));
                 } else if (file.getName().endsWith(".class")) {
                     classes.add(Class.forName(packageName + '.'
-                            + file.getName().substring(0, file.getName().length() - 6)));
+                            + file.getName().substring(0, file.getName().length() - 6),
+                            false, Thread.currentThread().getContextClassLoader()));
                 }
             }
         }
         return classes;
     }
+
+    private static class WiringPlan {
+        private final MethodHandle constructor;
+        private final List<InjectionPoint> injectionPoints = new ArrayList<>();
+
+        WiringPlan(Class<?> clazz) {
+            try {
+                MethodHandles.Lookup lookup =
+                        MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+                constructor = lookup.findConstructor(clazz, MethodType.methodType(void.class));
+                for (Field field : clazz.getDeclaredFields()) {
+                    injectionPoints.add(new InjectionPoint(lookup, field));
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException("Can't create object of the class", e);
+            }
+        }
+
+        Object createInstance() {
+            try {
+                return constructor.invoke();
+            } catch (Throwable e) {
+                throw new RuntimeException("Can't create object of the class", e);
+            }
+        }
+    }
+
+    private static class InjectionPoint {
+        private final String name;
+        private final Class<?> type;
+        private final boolean injected;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        InjectionPoint(MethodHandles.Lookup lookup, Field field)
+                throws IllegalAccessException {
+            name = field.getName();
+            type = field.getType();
+            injected = field.isAnnotationPresent(Inject.class);
+            getter = lookup.unreflectGetter(field);
+            setter = injected && !Modifier.isFinal(field.getModifiers())
+                    ? lookup.unreflectSetter(field) : null;
+        }
+
+        boolean isInitialized(Object instance) {
+            try {
+                return (getter.type().parameterCount() == 0
+                        ? getter.invoke() : getter.invoke(instance)) != null;
+            } catch (Throwable e) {
+                throw new RuntimeException("Can't get access to field", e);
+            }
+        }
+
+        void setValue(Object instance, Object value) {
+            if (setter == null) {
+                throw new RuntimeException("Can't set value to final field " + name);
+            }
+            try {
+                if (setter.type().parameterCount() == 1) {
+                    setter.invoke(value);
+                } else {
+                    setter.invoke(instance, value);
+                }
+            } catch (Throwable e) {
+                throw new RuntimeException("Can't set value to field ", e);
+            }
+        }
+    }
 }
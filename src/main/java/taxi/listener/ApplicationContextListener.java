@@ -0,0 +1,129 @@
+package taxi.listener;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.lib.Injector;
+import taxi.metrics.MetricsRegistry;
+import taxi.service.ArchiveService;
+import taxi.service.ArchiveServiceImpl;
+import taxi.service.AuthenticationServiceImpl;
+import taxi.service.CarSearchService;
+import taxi.service.DriverSearchService;
+import taxi.util.ApplicationProperties;
+import taxi.util.ConnectionPool;
+import taxi.util.ConnectionUtil;
+import taxi.util.DaoExecutor;
+import taxi.util.HashingExecutor;
+import taxi.util.PasswordHasher;
+import taxi.util.SlowQueryLog;
+
+public class ApplicationContextListener implements ServletContextListener {
+    private static final Logger logger = LogManager.getLogger(ApplicationContextListener.class);
+    private static final double NANOS_PER_SECOND = 1e9;
+    private ScheduledExecutorService archiveScheduler;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        if (ApplicationProperties.getBoolean("injector.eager.wiring", true)) {
+            logger.info("Wiring all components");
+            Injector.getInstance("taxi").wireAll();
+        }
+        registerGauges();
+        logger.info("Indexing drivers for search");
+        ((DriverSearchService) Injector.getInstance("taxi")
+                .getInstance(DriverSearchService.class)).rebuild();
+        logger.info("Indexing cars for search");
+        ((CarSearchService) Injector.getInstance("taxi")
+                .getInstance(CarSearchService.class)).rebuild();
+        scheduleArchival();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        if (archiveScheduler != null) {
+            archiveScheduler.shutdownNow();
+        }
+        DaoExecutor.shutdown();
+        logger.info("Closing connection pool");
+        ConnectionUtil.shutdown();
+    }
+
+    /**
+     * Moves rows deleted more than {@code archive.retention.days} ago to the archive tables
+     * every {@code archive.interval.ms}. A non-positive interval turns archival off.
+     */
+    private void scheduleArchival() {
+        long intervalMillis = ApplicationProperties.getLong("archive.interval.ms", 3600000);
+        if (intervalMillis <= 0) {
+            logger.info("Archival of deleted rows is off");
+            return;
+        }
+        int retentionDays = ApplicationProperties.getInt("archive.retention.days", 30);
+        ArchiveService archiveService = (ArchiveService) Injector.getInstance("taxi")
+                .getInstance(ArchiveService.class);
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "archiver");
+            thread.setDaemon(true);
+            return thread;
+        };
+        Runnable archival = () -> {
+            try {
+                archiveService.archive(retentionDays);
+            } catch (RuntimeException e) {
+                logger.error("Archival of deleted rows failed", e);
+            }
+        };
+        archiveScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        archiveScheduler.scheduleWithFixedDelay(archival,
+                ApplicationProperties.getLong("archive.initial.delay.ms", 300000),
+                intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void registerGauges() {
+        ConnectionPool pool = ConnectionUtil.getPool();
+        MetricsRegistry.gauge("db_pool_active_connections", "gauge",
+                "Connections borrowed from the pool right now", "",
+                pool::getActiveConnections);
+        MetricsRegistry.gauge("db_pool_idle_connections", "gauge",
+                "Idle connections in the pool", "", pool::getIdleConnections);
+        MetricsRegistry.gauge("db_pool_borrowed_total", "counter",
+                "Connections borrowed from the pool", "", pool::getBorrowedCount);
+        MetricsRegistry.gauge("db_pool_timeouts_total", "counter",
+                "Borrows that timed out waiting for a connection", "", pool::getTimeoutCount);
+        MetricsRegistry.gauge("db_pool_wait_seconds_total", "counter",
+                "Time spent waiting for a connection", "",
+                () -> pool.getBorrowWaitNanos() / NANOS_PER_SECOND);
+        MetricsRegistry.gauge("db_slow_queries_total", "counter",
+                "Statements slower than the slow query threshold", "",
+                SlowQueryLog::getSlowQueryCount);
+        MetricsRegistry.gauge("dao_executor_pending_tasks", "gauge",
+                "Database tasks of asynchronous requests running or waiting", "",
+                DaoExecutor::getPendingTaskCount);
+        MetricsRegistry.gauge("dao_executor_rejected_total", "counter",
+                "Asynchronous requests refused because the executor was full", "",
+                DaoExecutor::getRejectedTaskCount);
+        MetricsRegistry.gauge("archived_rows_total", "counter",
+                "Deleted rows moved to the archive tables", "",
+                ArchiveServiceImpl::getArchivedRowCount);
+        MetricsRegistry.gauge("password_hashes_total", "counter", "Passwords hashed", "",
+                PasswordHasher::getHashCount);
+        MetricsRegistry.gauge("password_hash_seconds_total", "counter",
+                "Time spent hashing passwords", "",
+                () -> PasswordHasher.getHashTimeNanos() / NANOS_PER_SECOND);
+        MetricsRegistry.gauge("password_hashing_queue_size", "gauge",
+                "Passwords waiting for a hashing thread", "",
+                HashingExecutor::getQueuedTaskCount);
+        MetricsRegistry.gauge("password_hashing_active_threads", "gauge",
+                "Hashing threads busy right now", "",
+                HashingExecutor::getActiveTaskCount);
+        MetricsRegistry.gauge("logins_rejected_total", "counter",
+                "Logins refused because password hashing was overloaded", "",
+                AuthenticationServiceImpl::getRejectedLoginCount);
+    }
+}
@@ -0,0 +1,125 @@
+package taxi.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Node-wide timers and gauges, written out in the Prometheus text exposition format.
+ * Timers are grouped by metric name and told apart by their labels.
+ */
+public class MetricsRegistry {
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final Map<String, TimerFamily> timers = new ConcurrentSkipListMap<>();
+    private static final Map<String, GaugeFamily> gauges = new ConcurrentSkipListMap<>();
+
+    public static Timer timer(String name, String help, String labels) {
+        return timers.computeIfAbsent(name, key -> new TimerFamily(help)).timers
+                .computeIfAbsent(labels, key -> new Timer());
+    }
+
+    public static void gauge(String name, String type, String help, String labels,
+                             DoubleSupplier value) {
+        gauges.computeIfAbsent(name, key -> new GaugeFamily(type, help)).values
+                .put(labels, value);
+    }
+
+    /**
+     * Removes the gauge if it is still the one registered under the name and labels.
+     */
+    public static void removeGauge(String name, String labels, DoubleSupplier value) {
+        GaugeFamily family = gauges.get(name);
+        if (family != null) {
+            family.values.remove(labels, value);
+        }
+    }
+
+    public static String label(String name, String value) {
+        return name + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"")
+                .replace("\n", "\\n") + '"';
+    }
+
+    public static String scrape() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, TimerFamily> family : timers.entrySet()) {
+            writeTimers(out, family.getKey(), family.getValue());
+        }
+        for (Map.Entry<String, GaugeFamily> family : gauges.entrySet()) {
+            String name = family.getKey();
+            writeHeader(out, name, family.getValue().type, family.getValue().help);
+            for (Map.Entry<String, DoubleSupplier> gauge : family.getValue().values.entrySet()) {
+                writeSample(out, name, gauge.getKey(), gauge.getValue().getAsDouble());
+            }
+        }
+        return out.toString();
+    }
+
+    private static void writeTimers(StringBuilder out, String name, TimerFamily family) {
+        writeHeader(out, name, "summary", family.help);
+        for (Map.Entry<String, Timer> entry : family.timers.entrySet()) {
+            String labels = entry.getKey();
+            Histogram latency = entry.getValue().getLatencyNanos();
+            for (double quantile : QUANTILES) {
+                writeSample(out, name, join(labels, label("quantile", String.valueOf(quantile))),
+                        latency.getQuantile(quantile) / NANOS_PER_SECOND);
+            }
+            writeSample(out, name + "_count", labels, latency.getCount());
+            writeSample(out, name + "_sum", labels, latency.getSum() / NANOS_PER_SECOND);
+        }
+        String baseName = name.endsWith("_seconds")
+                ? name.substring(0, name.length() - "_seconds".length()) : name;
+        writeCounter(out, baseName + "_rows_total", "Rows returned", family, Timer::getRows);
+        writeCounter(out, baseName + "_connections_total", "Connections borrowed from the pool",
+                family, Timer::getConnections);
+        writeCounter(out, baseName + "_errors_total", "Failed calls", family, Timer::getErrors);
+    }
+
+    private static void writeCounter(StringBuilder out, String name, String help,
+                                     TimerFamily family, ToLongFunction<Timer> value) {
+        writeHeader(out, name, "counter", help);
+        for (Map.Entry<String, Timer> entry : family.timers.entrySet()) {
+            writeSample(out, name, entry.getKey(), value.applyAsLong(entry.getValue()));
+        }
+    }
+
+    private static void writeHeader(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void writeSample(StringBuilder out, String name, String labels,
+                                    double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String join(String labels, String label) {
+        return labels.isEmpty() ? label : labels + "," + label;
+    }
+
+    private static class TimerFamily {
+        private final String help;
+        private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+        TimerFamily(String help) {
+            this.help = help;
+        }
+    }
+
+    private static class GaugeFamily {
+        private final String type;
+        private final String help;
+        private final Map<String, DoubleSupplier> values = new ConcurrentHashMap<>();
+
+        GaugeFamily(String type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package taxi.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram of one operation together with the number of rows it produced, the
+ * connections it borrowed and the number of times it failed.
+ */
+public class Timer {
+    private final Histogram latencyNanos = new Histogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder connections = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public void record(long elapsedNanos, long rowCount, long borrowedConnections) {
+        latencyNanos.record(elapsedNanos);
+        if (rowCount > 0) {
+            rows.add(rowCount);
+        }
+        if (borrowedConnections > 0) {
+            connections.add(borrowedConnections);
+        }
+    }
+
+    public void recordError(long elapsedNanos, long borrowedConnections) {
+        record(elapsedNanos, 0, borrowedConnections);
+        errors.increment();
+    }
+
+    public Histogram getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getConnections() {
+        return connections.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+}
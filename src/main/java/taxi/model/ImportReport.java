@@ -0,0 +1,101 @@
+package taxi.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Counts of a CSV import together with the first errors. Only the first
+ * {@code maxErrors} errors are kept; the rest are counted in {@link #getRowsFailed()}.
+ */
+public class ImportReport {
+    private final String type;
+    private final int maxErrors;
+    private final List<RowError> errors = new ArrayList<>();
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private long elapsedMillis;
+
+    public ImportReport(String type, int maxErrors) {
+        this.type = type;
+        this.maxErrors = maxErrors;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void addRowsRead(long rows) {
+        rowsRead += rows;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public void addRowsImported(long rows) {
+        rowsImported += rows;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public void addFailure(long line, long rows, String message) {
+        rowsFailed += rows;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{"
+                + "type='" + type + '\''
+                + ", rowsRead=" + rowsRead
+                + ", rowsImported=" + rowsImported
+                + ", rowsFailed=" + rowsFailed
+                + ", elapsedMillis=" + elapsedMillis
+                + '}';
+    }
+
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + line + ": " + message;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package taxi.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Authenticated driver together with the cars assigned to it, as seen by the web layer.
+ */
+public class Principal {
+    private final Driver driver;
+    private final List<Car> cars;
+
+    public Principal(Driver driver, List<Car> cars) {
+        this.driver = driver;
+        this.cars = Collections.unmodifiableList(cars);
+    }
+
+    public Driver getDriver() {
+        return driver;
+    }
+
+    public List<Car> getCars() {
+        return cars;
+    }
+
+    public boolean hasCar(Long carId) {
+        for (Car car : cars) {
+            if (car.getId().equals(carId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean sharesCarWith(Long driverId) {
+        for (Car car : cars) {
+            for (Driver carDriver : car.getDrivers()) {
+                if (carDriver.getId().equals(driverId)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public boolean hasCarOf(Long manufacturerId) {
+        for (Car car : cars) {
+            if (car.getManufacturer().getId().equals(manufacturerId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasAnyCar(Set<Long> carIds) {
+        for (Car car : cars) {
+            if (carIds.contains(car.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean sharesCarWithAny(Set<Long> driverIds) {
+        for (Car car : cars) {
+            for (Driver carDriver : car.getDrivers()) {
+                if (driverIds.contains(carDriver.getId())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public boolean hasCarOfAny(Set<Long> manufacturerIds) {
+        for (Car car : cars) {
+            if (manufacturerIds.contains(car.getManufacturer().getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "Principal{"
+                + "driver=" + driver
+                + ", cars=" + cars
+                + '}';
+    }
+}
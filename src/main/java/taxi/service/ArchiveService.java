@@ -0,0 +1,10 @@
+package taxi.service;
+
+public interface ArchiveService {
+    /**
+     * Moves the cars, drivers and manufacturers deleted more than the given number of
+     * days ago, by the database clock, to the archive tables and returns how many rows
+     * were moved.
+     */
+    long archive(int retentionDays);
+}
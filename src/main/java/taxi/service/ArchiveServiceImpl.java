@@ -0,0 +1,86 @@
+package taxi.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntUnaryOperator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.dao.ArchiveDao;
+import taxi.lib.Inject;
+import taxi.lib.Service;
+import taxi.util.ApplicationProperties;
+import taxi.util.ConnectionPool;
+import taxi.util.ConnectionUtil;
+import taxi.util.TransactionManager;
+
+/**
+ * Archives in transactions of {@code archive.batch.size} rows so that locks are held only
+ * briefly. After each batch it rests at least as long as the batch took, which keeps the
+ * job below half of one connection's time, and it doesn't start a batch while more than
+ * {@code archive.max.pool.usage} of the pool is busy with live traffic.
+ */
+@Service
+public class ArchiveServiceImpl implements ArchiveService {
+    private static final Logger logger = LogManager.getLogger(ArchiveServiceImpl.class);
+    private static final int BATCH_SIZE = ApplicationProperties.getInt("archive.batch.size", 500);
+    private static final long PAUSE_MILLIS =
+            ApplicationProperties.getLong("archive.batch.pause.ms", 200);
+    private static final double MAX_POOL_USAGE = Double.parseDouble(
+            ApplicationProperties.getString("archive.max.pool.usage", "0.5"));
+    private static final LongAdder archivedRows = new LongAdder();
+    @Inject
+    private ArchiveDao archiveDao;
+
+    public static long getArchivedRowCount() {
+        return archivedRows.sum();
+    }
+
+    @Override
+    public long archive(int retentionDays) {
+        long archived = archiveBatches("cars", limit ->
+                archiveDao.archiveCars(retentionDays, limit));
+        archived += archiveBatches("drivers", limit ->
+                archiveDao.archiveDrivers(retentionDays, limit));
+        archived += archiveBatches("manufacturers", limit ->
+                archiveDao.archiveManufacturers(retentionDays, limit));
+        return archived;
+    }
+
+    private long archiveBatches(String table, IntUnaryOperator batch) {
+        long archived = 0;
+        while (waitForIdlePool()) {
+            long start = System.nanoTime();
+            int rows = TransactionManager.inTransaction(() -> batch.applyAsInt(BATCH_SIZE));
+            archived += rows;
+            archivedRows.add(rows);
+            if (rows < BATCH_SIZE || !pause(Math.max(PAUSE_MILLIS,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)))) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            logger.info("Archived {} {}", archived, table);
+        }
+        return archived;
+    }
+
+    private boolean waitForIdlePool() {
+        ConnectionPool pool = ConnectionUtil.getPool();
+        while (pool.getActiveConnections() > pool.getMaxSize() * MAX_POOL_USAGE) {
+            if (!pause(PAUSE_MILLIS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
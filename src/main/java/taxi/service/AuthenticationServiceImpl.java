@@ -1,28 +1,69 @@
 package taxi.service;
 
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import taxi.exception.AuthenticationException;
-import taxi.lib.Injector;
+import taxi.lib.Inject;
 import taxi.lib.Service;
 import taxi.model.Driver;
+import taxi.util.HashingExecutor;
+import taxi.util.PasswordHasher;
 
+/**
+ * Verifies passwords on the {@link HashingExecutor}, so that a burst of logins waits for
+ * or is refused a hashing thread instead of hashing on the threads of its callers; the
+ * login servlet calls it off the servlet threads. Passwords stored in plain text or with
+ * an outdated cost are rehashed on a successful login.
+ */
 @Service
 public class AuthenticationServiceImpl implements AuthenticationService {
     private static final Logger logger = LogManager.getLogger(AuthenticationServiceImpl.class);
-    private static final Injector injector = Injector.getInstance("taxi");
-    private final DriverService driverService = (DriverService) injector
-            .getInstance(DriverService.class);
+    private static final LongAdder rejectedLogins = new LongAdder();
+    @Inject
+    private DriverService driverService;
+
+    public static long getRejectedLoginCount() {
+        return rejectedLogins.sum();
+    }
 
     @Override
     public Driver login(String login, String password) throws AuthenticationException {
         logger.debug("Method login was called. Params: login={}", login);
         Optional<Driver> driver = driverService.findByLogin(login);
-        if (driver.isPresent() && driver.get().getPassword().equals(password)) {
+        if (driver.isPresent() && verify(password, driver.get().getPassword())) {
+            rehashIfNeeded(driver.get(), password);
             return driver.get();
         }
         logger.error("Invalid authentication data");
         throw new AuthenticationException("Login or password was incorrect");
     }
+
+    private boolean verify(String password, String storedPassword)
+            throws AuthenticationException {
+        if (password == null) {
+            return false;
+        }
+        try {
+            return HashingExecutor.call(() -> PasswordHasher.verify(password, storedPassword));
+        } catch (RejectedExecutionException e) {
+            rejectedLogins.increment();
+            logger.warn("Password verification is overloaded", e);
+            throw new AuthenticationException("Too many login attempts right now. "
+                    + "Please, try again in a moment");
+        }
+    }
+
+    private void rehashIfNeeded(Driver driver, String password) {
+        if (!PasswordHasher.needsRehash(driver.getPassword())) {
+            return;
+        }
+        try {
+            driverService.rehashPassword(driver, password);
+        } catch (RuntimeException e) {
+            logger.warn("Can't rehash the password of driver {}", driver.getId(), e);
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package taxi.service;
+
+import java.util.List;
+import taxi.model.Car;
+
+public interface CarSearchService {
+    /**
+     * Returns up to {@code limit} cars with ids above {@code afterId} whose model,
+     * manufacturer name or manufacturer country contain every word of the query, ordered
+     * by id.
+     */
+    List<Car> search(String query, Long afterId, int limit);
+
+    /**
+     * Reads all cars into a fresh index.
+     */
+    void rebuild();
+}
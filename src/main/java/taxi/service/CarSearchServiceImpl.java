@@ -0,0 +1,165 @@
+package taxi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.dao.CarDao;
+import taxi.event.EntityChangeListener;
+import taxi.event.EntityEvents;
+import taxi.event.EntityType;
+import taxi.lib.Inject;
+import taxi.lib.Service;
+import taxi.model.Car;
+import taxi.util.InvertedIndex;
+import taxi.util.SearchIndexRefresher;
+
+/**
+ * Finds cars through an inverted index of the words of their model, manufacturer name
+ * and manufacturer country; only the page of cars found is read from the database. The
+ * index is kept up to date with the cars named in change events and the cars of the
+ * manufacturers named in them.
+ */
+@Service
+public class CarSearchServiceImpl implements CarSearchService {
+    private static final Logger logger = LogManager.getLogger(CarSearchServiceImpl.class);
+    private static final SearchIndexRefresher<EntityType> refresher =
+            new SearchIndexRefresher<>();
+    private static final InvertedIndex index = new InvertedIndex();
+    private static final Map<Long, IndexedCar> indexedCars = new HashMap<>();
+    @Inject
+    private CarDao carDao;
+
+    static {
+        EntityEvents.subscribe(new EntityChangeListener() {
+            @Override
+            public void onChange(EntityType type, Long id) {
+                onChanges(type, List.of(id));
+            }
+
+            @Override
+            public void onChanges(EntityType type, Collection<Long> ids) {
+                if (type == EntityType.CAR || type == EntityType.MANUFACTURER) {
+                    refresher.markChanged(type, ids);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns up to {@code limit} cars after {@code afterId}. A car deleted since it was
+     * indexed isn't read back, so more ids are taken from the index until the page is
+     * full or the matches run out; otherwise a short page would hide the later ones.
+     */
+    @Override
+    public List<Car> search(String query, Long afterId, int limit) {
+        Set<String> terms = new LinkedHashSet<>(SearchIndexRefresher.tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        refresher.refresh(this::rebuild, this::reload);
+        long[] ids = refresher.read(() -> index.findAll(terms));
+        int from = afterId == null ? 0 : Arrays.binarySearch(ids, afterId + 1);
+        from = from < 0 ? -from - 1 : from;
+        List<Car> cars = new ArrayList<>();
+        while (cars.size() < limit && from < ids.length) {
+            int to = Math.min(ids.length, from + limit - cars.size());
+            List<Long> pageIds = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                pageIds.add(ids[i]);
+            }
+            cars.addAll(carDao.getAllByIds(pageIds));
+            from = to;
+        }
+        return cars;
+    }
+
+    @Override
+    public void rebuild() {
+        final long start = System.nanoTime();
+        refresher.rebuild(this::readAll, CarSearchServiceImpl::replaceAll);
+        logger.info("Indexed {} cars under {} words in {} ms",
+                refresher.read(indexedCars::size), refresher.read(index::size),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<IndexedCar> readAll() {
+        List<IndexedCar> cars = new ArrayList<>();
+        carDao.forEach(car -> cars.add(indexedCarOf(car)));
+        return cars;
+    }
+
+    private static void replaceAll(List<IndexedCar> cars) {
+        index.clear();
+        indexedCars.clear();
+        cars.forEach(CarSearchServiceImpl::add);
+    }
+
+    /**
+     * Rereads the changed cars and the cars of the changed manufacturers.
+     */
+    private void reload(Map<EntityType, Set<Long>> changedIds) {
+        Set<Long> ids = new LinkedHashSet<>(
+                changedIds.getOrDefault(EntityType.CAR, Set.of()));
+        Set<Long> manufacturerIds =
+                changedIds.getOrDefault(EntityType.MANUFACTURER, Set.of());
+        if (!manufacturerIds.isEmpty()) {
+            for (Map.Entry<Long, IndexedCar> entry : indexedCars.entrySet()) {
+                if (manufacturerIds.contains(entry.getValue().manufacturerId)) {
+                    ids.add(entry.getKey());
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<IndexedCar> cars = new ArrayList<>(ids.size());
+        for (Car car : carDao.getAllByIds(ids)) {
+            cars.add(indexedCarOf(car));
+        }
+        refresher.write(() -> {
+            for (Long id : ids) {
+                IndexedCar previous = indexedCars.remove(id);
+                if (previous != null) {
+                    for (String token : previous.tokens) {
+                        index.remove(token, id);
+                    }
+                }
+            }
+            cars.forEach(CarSearchServiceImpl::add);
+        });
+    }
+
+    private static IndexedCar indexedCarOf(Car car) {
+        Set<String> tokens = new LinkedHashSet<>(SearchIndexRefresher.tokenize(car.getModel()));
+        tokens.addAll(SearchIndexRefresher.tokenize(car.getManufacturer().getName()));
+        tokens.addAll(SearchIndexRefresher.tokenize(car.getManufacturer().getCountry()));
+        return new IndexedCar(car.getId(), car.getManufacturer().getId(),
+                tokens.toArray(new String[0]));
+    }
+
+    private static void add(IndexedCar car) {
+        indexedCars.put(car.id, car);
+        for (String token : car.tokens) {
+            index.add(token, car.id);
+        }
+    }
+
+    private static class IndexedCar {
+        private final Long id;
+        private final Long manufacturerId;
+        private final String[] tokens;
+
+        IndexedCar(Long id, Long manufacturerId, String[] tokens) {
+            this.id = id;
+            this.manufacturerId = manufacturerId;
+            this.tokens = tokens;
+        }
+    }
+}
@@ -2,11 +2,13 @@ package taxi.service;
 
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 import taxi.dao.CarDao;
 import taxi.lib.Inject;
 import taxi.lib.Service;
 import taxi.model.Car;
 import taxi.model.Driver;
+import taxi.util.TransactionManager;
 
 @Service
 public class CarServiceImpl implements CarService {
@@ -15,14 +17,18 @@ public class CarServiceImpl implements CarService {
 
     @Override
     public void addDriverToCar(Driver driver, Car car) {
-        car.getDrivers().add(driver);
-        carDao.update(car);
+        TransactionManager.runInTransaction(() -> {
+            car.getDrivers().add(driver);
+            carDao.update(car);
+        });
     }
 
     @Override
     public void removeDriverFromCar(Driver driver, Car car) {
-        car.getDrivers().remove(driver);
-        carDao.update(car);
+        TransactionManager.runInTransaction(() -> {
+            car.getDrivers().remove(driver);
+            carDao.update(car);
+        });
     }
 
     @Override
@@ -32,7 +38,12 @@ public class CarServiceImpl implements CarService {
 
     @Override
     public Car create(Car car) {
-        return carDao.create(car);
+        return TransactionManager.inTransaction(() -> carDao.create(car));
+    }
+
+    @Override
+    public List<Car> createAll(List<Car> cars) {
+        return TransactionManager.inTransaction(() -> carDao.createAll(cars));
     }
 
     @Override
@@ -47,9 +58,19 @@ public class CarServiceImpl implements CarService {
         return carDao.getAll();
     }
 
+    @Override
+    public List<Car> getPage(Long afterId, int limit) {
+        return carDao.getPage(afterId, limit);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Car> action) {
+        carDao.forEach(action);
+    }
+
     @Override
     public Car update(Car car) {
-        return carDao.update(car);
+        return TransactionManager.inTransaction(() -> carDao.update(car));
     }
 
     @Override
@@ -0,0 +1,17 @@
+package taxi.service;
+
+import java.util.List;
+import taxi.model.Driver;
+
+public interface DriverSearchService {
+    /**
+     * Returns up to {@code limit} drivers that have, for every word of the query, a word
+     * of their name, login or license number starting with it. Passwords are not set.
+     */
+    List<Driver> search(String query, int limit);
+
+    /**
+     * Reads all drivers into a fresh index.
+     */
+    void rebuild();
+}
@@ -0,0 +1,177 @@
+package taxi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.dao.DriverDao;
+import taxi.event.EntityChangeListener;
+import taxi.event.EntityEvents;
+import taxi.event.EntityType;
+import taxi.lib.Inject;
+import taxi.lib.Service;
+import taxi.model.Driver;
+import taxi.util.PrefixIndex;
+import taxi.util.SearchIndexRefresher;
+
+/**
+ * Searches drivers in a prefix index of the words of their names, logins and license
+ * numbers, held in memory together with the drivers themselves and kept up to date with
+ * the drivers named in change events. The rarest search term is looked up in the index
+ * and the drivers found are checked against the other terms.
+ */
+@Service
+public class DriverSearchServiceImpl implements DriverSearchService {
+    private static final Logger logger = LogManager.getLogger(DriverSearchServiceImpl.class);
+    private static final SearchIndexRefresher<EntityType> refresher =
+            new SearchIndexRefresher<>();
+    private static final PrefixIndex index = new PrefixIndex();
+    private static final Map<Long, IndexedDriver> driversById = new HashMap<>();
+    @Inject
+    private DriverDao driverDao;
+
+    static {
+        EntityEvents.subscribe(new EntityChangeListener() {
+            @Override
+            public void onChange(EntityType type, Long id) {
+                onChanges(type, List.of(id));
+            }
+
+            @Override
+            public void onChanges(EntityType type, Collection<Long> ids) {
+                if (type == EntityType.DRIVER) {
+                    refresher.markChanged(type, ids);
+                }
+            }
+        });
+    }
+
+    @Override
+    public List<Driver> search(String query, int limit) {
+        List<String> terms = SearchIndexRefresher.tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        refresher.refresh(this::rebuild, this::reload);
+        return refresher.read(() -> {
+            terms.sort(Comparator.comparingInt(index::count));
+            List<String> otherTerms = terms.subList(1, terms.size());
+            Set<Long> ids = new LinkedHashSet<>();
+            index.find(terms.get(0), limit,
+                    id -> driversById.get(id).matchesAll(otherTerms), ids);
+            List<Driver> drivers = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                drivers.add(copyOf(driversById.get(id).driver));
+            }
+            return drivers;
+        });
+    }
+
+    @Override
+    public void rebuild() {
+        final long start = System.nanoTime();
+        refresher.rebuild(this::readAll, DriverSearchServiceImpl::replaceAll);
+        logger.info("Indexed {} drivers under {} words in {} ms",
+                refresher.read(driversById::size), refresher.read(index::size),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<Driver> readAll() {
+        List<Driver> drivers = new ArrayList<>();
+        driverDao.forEach(driver -> drivers.add(copyOf(driver)));
+        return drivers;
+    }
+
+    private static void replaceAll(List<Driver> drivers) {
+        index.clear();
+        driversById.clear();
+        drivers.forEach(DriverSearchServiceImpl::add);
+    }
+
+    private void reload(Map<EntityType, Set<Long>> changedIds) {
+        Set<Long> ids = changedIds.getOrDefault(EntityType.DRIVER, Set.of());
+        List<Driver> drivers = driverDao.getAllByIds(ids);
+        refresher.write(() -> {
+            for (Long id : ids) {
+                IndexedDriver previous = driversById.remove(id);
+                if (previous != null) {
+                    for (String key : previous.keys) {
+                        index.remove(key, id);
+                    }
+                }
+            }
+            for (Driver driver : drivers) {
+                add(copyOf(driver));
+            }
+        });
+    }
+
+    private static void add(Driver profile) {
+        IndexedDriver indexedDriver = new IndexedDriver(profile, keysOf(profile));
+        driversById.put(profile.getId(), indexedDriver);
+        for (String key : indexedDriver.keys) {
+            index.add(key, profile.getId());
+        }
+    }
+
+    /**
+     * Words of the name, login and license number, plus the login and license number
+     * as a whole without separators, so that "AB-123" is found by "ab123" as well.
+     */
+    private static String[] keysOf(Driver driver) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String field : Arrays.asList(driver.getName(), driver.getLogin(),
+                driver.getLicenseNumber())) {
+            keys.addAll(SearchIndexRefresher.tokenize(field));
+        }
+        for (String field : Arrays.asList(driver.getLogin(), driver.getLicenseNumber())) {
+            String joined = String.join("", SearchIndexRefresher.tokenize(field));
+            if (!joined.isEmpty()) {
+                keys.add(joined);
+            }
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    private static Driver copyOf(Driver driver) {
+        Driver profile = new Driver(driver.getName(), driver.getLicenseNumber(),
+                driver.getLogin(), null);
+        profile.setId(driver.getId());
+        return profile;
+    }
+
+    private static class IndexedDriver {
+        private final Driver driver;
+        private final String[] keys;
+
+        IndexedDriver(Driver driver, String[] keys) {
+            this.driver = driver;
+            this.keys = keys;
+        }
+
+        boolean matchesAll(List<String> terms) {
+            for (String term : terms) {
+                if (!matches(term)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean matches(String term) {
+            for (String key : keys) {
+                if (key.startsWith(term)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package taxi.service;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import taxi.model.Driver;
 
 public interface DriverService extends GenericService<Driver> {
     Optional<Driver> findByLogin(String login);
+
+    Set<String> findExistingLogins(Collection<String> logins);
+
+    /**
+     * Stores a fresh hash of the password the driver has just proven to know.
+     */
+    void rehashPassword(Driver driver, String password);
 }
@@ -1,21 +1,59 @@
 package taxi.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 import taxi.dao.DriverDao;
 import taxi.lib.Inject;
 import taxi.lib.Service;
 import taxi.model.Driver;
+import taxi.util.ApplicationProperties;
+import taxi.util.HashingExecutor;
+import taxi.util.PasswordHasher;
+import taxi.util.TransactionManager;
 
+/**
+ * Hashes every password given to {@link #create} and {@link #update} on the
+ * {@link HashingExecutor}, whatever it looks like, so a client can't store a hash of its
+ * own choosing. The only exception is an update that passes the stored hash back
+ * unchanged, which keeps the password as it is.
+ */
 @Service
 public class DriverServiceImpl implements DriverService {
+    private static final int IMPORT_HASH_ITERATIONS = ApplicationProperties.getInt(
+            "security.password.import.hash.iterations",
+            ApplicationProperties.getInt("security.password.hash.iterations", 210000));
     @Inject
     private DriverDao driverDao;
 
     @Override
     public Driver create(Driver driver) {
-        return driverDao.create(driver);
+        hashPassword(driver);
+        return TransactionManager.inTransaction(() -> driverDao.create(driver));
+    }
+
+    /**
+     * Hashes the passwords with the import cost on the {@link HashingExecutor} before
+     * inserting, since hashing takes far longer than the insert itself.
+     */
+    @Override
+    public List<Driver> createAll(List<Driver> drivers) {
+        List<Callable<String>> hashes = new ArrayList<>(drivers.size());
+        for (Driver driver : drivers) {
+            String password = driver.getPassword();
+            hashes.add(() -> password == null ? null
+                    : PasswordHasher.hash(password, IMPORT_HASH_ITERATIONS));
+        }
+        List<String> hashedPasswords = HashingExecutor.callAll(hashes);
+        for (int i = 0; i < drivers.size(); i++) {
+            drivers.get(i).setPassword(hashedPasswords.get(i));
+        }
+        return TransactionManager.inTransaction(() -> driverDao.createAll(drivers));
     }
 
     @Override
@@ -30,9 +68,24 @@ public class DriverServiceImpl implements DriverService {
         return driverDao.getAll();
     }
 
+    @Override
+    public List<Driver> getPage(Long afterId, int limit) {
+        return driverDao.getPage(afterId, limit);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Driver> action) {
+        driverDao.forEach(action);
+    }
+
     @Override
     public Driver update(Driver driver) {
-        return driverDao.update(driver);
+        String storedPassword = driverDao.get(driver.getId())
+                .map(Driver::getPassword).orElse(null);
+        if (driver.getPassword() != null && !driver.getPassword().equals(storedPassword)) {
+            hashPassword(driver);
+        }
+        return TransactionManager.inTransaction(() -> driverDao.update(driver));
     }
 
     @Override
@@ -44,4 +97,28 @@ public class DriverServiceImpl implements DriverService {
     public Optional<Driver> findByLogin(String login) {
         return driverDao.findByLogin(login);
     }
+
+    @Override
+    public Set<String> findExistingLogins(Collection<String> logins) {
+        return driverDao.findExistingLogins(logins);
+    }
+
+    @Override
+    public void rehashPassword(Driver driver, String password) {
+        String storedPassword = driver.getPassword();
+        driver.setPassword(HashingExecutor.call(() -> PasswordHasher.hash(password)));
+        try {
+            TransactionManager.inTransaction(() -> driverDao.update(driver));
+        } catch (RuntimeException e) {
+            driver.setPassword(storedPassword);
+            throw e;
+        }
+    }
+
+    private void hashPassword(Driver driver) {
+        String password = driver.getPassword();
+        if (password != null) {
+            driver.setPassword(HashingExecutor.call(() -> PasswordHasher.hash(password)));
+        }
+    }
 }
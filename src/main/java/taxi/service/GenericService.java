@@ -1,14 +1,21 @@
 package taxi.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface GenericService<T> {
     T create(T element);
 
+    List<T> createAll(List<T> elements);
+
     T get(Long id);
 
     List<T> getAll();
 
+    List<T> getPage(Long afterId, int limit);
+
+    void forEach(Consumer<? super T> action);
+
     T update(T element);
 
     boolean delete(Long id);
@@ -0,0 +1,15 @@
+package taxi.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import taxi.event.EntityType;
+import taxi.model.ImportReport;
+
+public interface ImportService {
+    /**
+     * Imports cars, drivers or manufacturers from CSV with a header row. Rows that fail
+     * validation or whose batch can't be written are reported and skipped; the rest of
+     * the file is still imported.
+     */
+    ImportReport importCsv(EntityType type, Reader csv) throws IOException;
+}
@@ -0,0 +1,277 @@
+package taxi.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.event.EntityType;
+import taxi.lib.Inject;
+import taxi.lib.Service;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.ImportReport;
+import taxi.model.Manufacturer;
+import taxi.util.ApplicationProperties;
+import taxi.util.CsvReader;
+
+/**
+ * Reads the CSV one record at a time and writes the valid rows in chunks of
+ * {@code import.batch.size}, each chunk with one JDBC batch in its own transaction. A
+ * chunk that fails is rolled back and reported, and the import goes on with the next one.
+ * Cars refer to manufacturers by name, resolved against one read of all manufacturers;
+ * driver logins are checked within the file in memory and against the database once
+ * per chunk.
+ */
+@Service
+public class ImportServiceImpl implements ImportService {
+    private static final Logger logger = LogManager.getLogger(ImportServiceImpl.class);
+    private static final int BATCH_SIZE = ApplicationProperties.getInt("import.batch.size", 1000);
+    private static final int MAX_REPORTED_ERRORS =
+            ApplicationProperties.getInt("import.max.reported.errors", 100);
+    @Inject
+    private CarService carService;
+    @Inject
+    private DriverService driverService;
+    @Inject
+    private ManufacturerService manufacturerService;
+
+    @Override
+    public ImportReport importCsv(EntityType type, Reader csv) throws IOException {
+        RowImporter<?> importer = createImporter(type);
+        ImportReport report = new ImportReport(type.name().toLowerCase(), MAX_REPORTED_ERRORS);
+        long start = System.nanoTime();
+        try (CsvReader reader = new CsvReader(csv)) {
+            List<String> header = reader.next();
+            if (header == null) {
+                throw new IllegalArgumentException("The CSV file is empty");
+            }
+            importer.setColumns(header);
+            List<String> fields;
+            while ((fields = reader.next()) != null) {
+                report.addRowsRead(1);
+                importer.add(reader.getLineNumber(), fields, report);
+                if (importer.size() >= BATCH_SIZE) {
+                    importer.flush(report);
+                }
+            }
+            importer.flush(report);
+        }
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        logger.info("Import finished: {}", report);
+        return report;
+    }
+
+    private RowImporter<?> createImporter(EntityType type) {
+        switch (type) {
+            case CAR:
+                return new CarImporter();
+            case DRIVER:
+                return new DriverImporter();
+            case MANUFACTURER:
+                return new ManufacturerImporter();
+            default:
+                throw new IllegalArgumentException("Can't import " + type);
+        }
+    }
+
+    private static class Row {
+        private final Map<String, Integer> columns;
+        private final List<String> fields;
+
+        Row(Map<String, Integer> columns, List<String> fields) {
+            this.columns = columns;
+            this.fields = fields;
+        }
+
+        String get(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        String require(String column) {
+            String value = get(column);
+            if (value == null) {
+                throw new IllegalArgumentException("The " + column + " is empty");
+            }
+            return value;
+        }
+    }
+
+    private abstract static class RowImporter<T> {
+        private final List<String> requiredColumns;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private final List<T> chunk = new ArrayList<>();
+        private final List<Long> lines = new ArrayList<>();
+
+        RowImporter(String... requiredColumns) {
+            this.requiredColumns = List.of(requiredColumns);
+        }
+
+        void setColumns(List<String> header) {
+            for (int i = 0; i < header.size(); i++) {
+                columns.putIfAbsent(header.get(i).trim().toLowerCase(), i);
+            }
+            for (String column : requiredColumns) {
+                if (!columns.containsKey(column)) {
+                    throw new IllegalArgumentException("The CSV header has no " + column
+                            + " column");
+                }
+            }
+        }
+
+        void add(long line, List<String> fields, ImportReport report) {
+            try {
+                chunk.add(parse(new Row(columns, fields)));
+                lines.add(line);
+            } catch (IllegalArgumentException e) {
+                report.addFailure(line, 1, e.getMessage());
+            }
+        }
+
+        int size() {
+            return chunk.size();
+        }
+
+        void flush(ImportReport report) {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            long firstLine = lines.get(0);
+            long lastLine = lines.get(lines.size() - 1);
+            removeConflicts(chunk, lines, report);
+            try {
+                if (!chunk.isEmpty()) {
+                    save(chunk);
+                }
+                report.addRowsImported(chunk.size());
+            } catch (RuntimeException e) {
+                logger.warn("Can't import lines {}-{}", firstLine, lastLine, e);
+                report.addFailure(firstLine, chunk.size(), "The rows on lines " + firstLine
+                        + "-" + lastLine + " weren't imported: " + e.getMessage());
+            }
+            chunk.clear();
+            lines.clear();
+            logger.info("Imported {} of {} {} rows", report.getRowsImported(),
+                    report.getRowsRead(), report.getType());
+        }
+
+        abstract T parse(Row row);
+
+        /**
+         * Drops the rows that would make the batch fail, reporting each of them.
+         */
+        void removeConflicts(List<T> chunk, List<Long> lines, ImportReport report) {
+        }
+
+        abstract void save(List<T> chunk);
+    }
+
+    private class ManufacturerImporter extends RowImporter<Manufacturer> {
+        ManufacturerImporter() {
+            super("name", "country");
+        }
+
+        @Override
+        Manufacturer parse(Row row) {
+            return new Manufacturer(row.require("name"), row.require("country"));
+        }
+
+        @Override
+        void save(List<Manufacturer> chunk) {
+            manufacturerService.createAll(chunk);
+        }
+    }
+
+    private class DriverImporter extends RowImporter<Driver> {
+        private final Set<String> fileLogins = new HashSet<>();
+
+        DriverImporter() {
+            super("name", "license_number", "login", "password");
+        }
+
+        @Override
+        Driver parse(Row row) {
+            Driver driver = new Driver(row.require("name"), row.require("license_number"),
+                    row.require("login"), row.require("password"));
+            if (!fileLogins.add(driver.getLogin().toLowerCase())) {
+                throw new IllegalArgumentException("The login " + driver.getLogin()
+                        + " appears more than once in the file");
+            }
+            return driver;
+        }
+
+        @Override
+        void removeConflicts(List<Driver> chunk, List<Long> lines, ImportReport report) {
+            Set<String> existingLogins = driverService.findExistingLogins(chunk.stream()
+                    .map(Driver::getLogin)
+                    .collect(Collectors.toList())).stream()
+                    .map(String::toLowerCase)
+                    .collect(Collectors.toSet());
+            if (existingLogins.isEmpty()) {
+                return;
+            }
+            for (int i = chunk.size() - 1; i >= 0; i--) {
+                String login = chunk.get(i).getLogin();
+                if (existingLogins.contains(login.toLowerCase())) {
+                    report.addFailure(lines.get(i), 1, "The login " + login
+                            + " is already taken");
+                    chunk.remove(i);
+                    lines.remove(i);
+                }
+            }
+        }
+
+        @Override
+        void save(List<Driver> chunk) {
+            driverService.createAll(chunk);
+        }
+    }
+
+    private class CarImporter extends RowImporter<Car> {
+        private final Map<String, List<Manufacturer>> manufacturersByName;
+
+        CarImporter() {
+            super("model", "manufacturer");
+            manufacturersByName = manufacturerService.getAll().stream()
+                    .collect(Collectors.groupingBy(manufacturer ->
+                            manufacturer.getName().toLowerCase()));
+        }
+
+        @Override
+        Car parse(Row row) {
+            String model = row.require("model");
+            String name = row.require("manufacturer");
+            String country = row.get("manufacturer_country");
+            List<Manufacturer> candidates = manufacturersByName
+                    .getOrDefault(name.toLowerCase(), List.of()).stream()
+                    .filter(manufacturer -> country == null
+                            || country.equalsIgnoreCase(manufacturer.getCountry()))
+                    .collect(Collectors.toList());
+            if (candidates.isEmpty()) {
+                throw new IllegalArgumentException("There is no manufacturer " + name
+                        + (country == null ? "" : " from " + country));
+            }
+            if (candidates.size() > 1) {
+                throw new IllegalArgumentException("There are several manufacturers " + name
+                        + ", add a manufacturer_country column to tell them apart");
+            }
+            return new Car(model, candidates.get(0));
+        }
+
+        @Override
+        void save(List<Car> chunk) {
+            carService.createAll(chunk);
+        }
+    }
+}
@@ -1,41 +1,109 @@
 package taxi.service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Consumer;
 import taxi.dao.ManufacturerDao;
 import taxi.lib.Inject;
 import taxi.lib.Service;
 import taxi.model.Manufacturer;
+import taxi.util.ApplicationProperties;
+import taxi.util.ExpiringCache;
+import taxi.util.TransactionManager;
 
 @Service
 public class ManufacturerServiceImpl implements ManufacturerService {
+    private static final String ALL_MANUFACTURERS_KEY = "all";
+    private static final int CACHE_MAX_SIZE =
+            ApplicationProperties.getInt("cache.manufacturers.max.size", 1000);
+    private static final long CACHE_TTL_MILLIS =
+            ApplicationProperties.getLong("cache.manufacturers.ttl.ms", 600000);
+    private final ExpiringCache<Long, Manufacturer> manufacturerCache =
+            new ExpiringCache<>("manufacturers", CACHE_MAX_SIZE, CACHE_TTL_MILLIS);
+    private final ExpiringCache<String, List<Manufacturer>> listCache =
+            new ExpiringCache<>("manufacturer_lists", CACHE_MAX_SIZE, CACHE_TTL_MILLIS);
     @Inject
     private ManufacturerDao manufacturerDao;
 
     @Override
     public Manufacturer create(Manufacturer manufacturer) {
-        return manufacturerDao.create(manufacturer);
+        Manufacturer created = manufacturerDao.create(manufacturer);
+        listCache.invalidateAll();
+        return created;
+    }
+
+    @Override
+    public List<Manufacturer> createAll(List<Manufacturer> manufacturers) {
+        List<Manufacturer> created = TransactionManager.inTransaction(() ->
+                manufacturerDao.createAll(manufacturers));
+        listCache.invalidateAll();
+        return created;
     }
 
     @Override
     public Manufacturer get(Long id) {
-        return manufacturerDao.get(id).orElseThrow(() ->
+        Manufacturer manufacturer = manufacturerCache.get(id, key ->
+                manufacturerDao.get(key).map(this::copyOf).orElse(null));
+        return Optional.ofNullable(manufacturer).map(this::copyOf).orElseThrow(() ->
             new NoSuchElementException("Can't get manufacturer by id: " + id)
         );
     }
 
     @Override
     public List<Manufacturer> getAll() {
-        return manufacturerDao.getAll();
+        return copyOf(listCache.get(ALL_MANUFACTURERS_KEY,
+                key -> copyOf(manufacturerDao.getAll())));
+    }
+
+    @Override
+    public List<Manufacturer> getPage(Long afterId, int limit) {
+        return copyOf(listCache.get("page:" + afterId + ":" + limit,
+                key -> copyOf(manufacturerDao.getPage(afterId, limit))));
+    }
+
+    @Override
+    public void forEach(Consumer<? super Manufacturer> action) {
+        manufacturerDao.forEach(action);
     }
 
     @Override
     public Manufacturer update(Manufacturer manufacturer) {
-        return manufacturerDao.update(manufacturer);
+        try {
+            return manufacturerDao.update(manufacturer);
+        } finally {
+            invalidate(manufacturer.getId());
+        }
     }
 
     @Override
     public boolean delete(Long id) {
-        return manufacturerDao.delete(id);
+        try {
+            return manufacturerDao.delete(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    private void invalidate(Long id) {
+        if (id != null) {
+            manufacturerCache.invalidate(id);
+        }
+        listCache.invalidateAll();
+    }
+
+    private List<Manufacturer> copyOf(List<Manufacturer> manufacturers) {
+        List<Manufacturer> copies = new ArrayList<>(manufacturers.size());
+        for (Manufacturer manufacturer : manufacturers) {
+            copies.add(copyOf(manufacturer));
+        }
+        return copies;
+    }
+
+    private Manufacturer copyOf(Manufacturer manufacturer) {
+        Manufacturer copy = new Manufacturer(manufacturer.getName(), manufacturer.getCountry());
+        copy.setId(manufacturer.getId());
+        return copy;
     }
 }
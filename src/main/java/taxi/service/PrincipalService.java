@@ -0,0 +1,14 @@
+package taxi.service;
+
+import java.util.Optional;
+import taxi.model.Principal;
+
+public interface PrincipalService {
+    /**
+     * Returns the driver behind an authenticated session with its cars, or an empty
+     * optional if the driver no longer exists.
+     */
+    Optional<Principal> getPrincipal(Long driverId);
+
+    void evict(Long driverId);
+}
@@ -0,0 +1,112 @@
+package taxi.service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import taxi.dao.CarDao;
+import taxi.dao.DriverDao;
+import taxi.event.EntityChangeListener;
+import taxi.event.EntityEvents;
+import taxi.event.EntityType;
+import taxi.lib.Inject;
+import taxi.lib.Service;
+import taxi.model.Driver;
+import taxi.model.Principal;
+import taxi.util.ApplicationProperties;
+import taxi.util.ExpiringCache;
+
+/**
+ * Keeps the principals of signed-in drivers in a cache shared by all sessions on this
+ * node. Entries are dropped when the driver, one of its cars, the drivers of those cars
+ * or their manufacturers change.
+ */
+@Service
+public class PrincipalServiceImpl implements PrincipalService {
+    private static final ExpiringCache<Long, Principal> principals = new ExpiringCache<>(
+            "principals",
+            ApplicationProperties.getInt("cache.principals.max.size", 10000),
+            ApplicationProperties.getLong("cache.principals.ttl.ms", 300000));
+    @Inject
+    private DriverDao driverDao;
+    @Inject
+    private CarDao carDao;
+
+    static {
+        EntityEvents.subscribe(new EntityChangeListener() {
+            @Override
+            public void onChange(EntityType type, Long id) {
+                PrincipalServiceImpl.onChange(type, id);
+            }
+
+            @Override
+            public void onChanges(EntityType type, Collection<Long> ids) {
+                PrincipalServiceImpl.onChanges(type, new HashSet<>(ids));
+            }
+        });
+    }
+
+    @Override
+    public Optional<Principal> getPrincipal(Long driverId) {
+        return Optional.ofNullable(principals.get(driverId, this::loadPrincipal));
+    }
+
+    @Override
+    public void evict(Long driverId) {
+        principals.invalidate(driverId);
+    }
+
+    private Principal loadPrincipal(Long driverId) {
+        return driverDao.get(driverId)
+                .map(driver -> new Principal(withoutPassword(driver),
+                        carDao.getAllByDriver(driverId)))
+                .orElse(null);
+    }
+
+    private Driver withoutPassword(Driver driver) {
+        Driver profile = new Driver(driver.getName(), driver.getLicenseNumber(),
+                driver.getLogin(), null);
+        profile.setId(driver.getId());
+        return profile;
+    }
+
+    private static void onChange(EntityType type, Long id) {
+        switch (type) {
+            case DRIVER:
+                principals.invalidateIf((driverId, principal) ->
+                        driverId.equals(id) || principal.sharesCarWith(id));
+                break;
+            case CAR_ASSIGNMENT:
+                principals.invalidate(id);
+                break;
+            case CAR:
+                principals.invalidateIf((driverId, principal) -> principal.hasCar(id));
+                break;
+            case MANUFACTURER:
+                principals.invalidateIf((driverId, principal) -> principal.hasCarOf(id));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void onChanges(EntityType type, Set<Long> ids) {
+        switch (type) {
+            case DRIVER:
+                principals.invalidateIf((driverId, principal) ->
+                        ids.contains(driverId) || principal.sharesCarWithAny(ids));
+                break;
+            case CAR_ASSIGNMENT:
+                principals.invalidateIf((driverId, principal) -> ids.contains(driverId));
+                break;
+            case CAR:
+                principals.invalidateIf((driverId, principal) -> principal.hasAnyCar(ids));
+                break;
+            case MANUFACTURER:
+                principals.invalidateIf((driverId, principal) -> principal.hasCarOfAny(ids));
+                break;
+            default:
+                break;
+        }
+    }
+}
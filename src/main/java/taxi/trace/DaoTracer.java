@@ -0,0 +1,170 @@
+package taxi.trace;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.metrics.MetricsRegistry;
+import taxi.metrics.Timer;
+import taxi.util.ApplicationProperties;
+import taxi.util.ConnectionPool;
+
+/**
+ * Wraps DAOs so that every call is timed into the {@code dao_call_seconds} metric together
+ * with the rows it returned and the connections it borrowed, and a sample of the calls is
+ * also written to the trace log. Nothing is logged per row. Trace logging is off when the
+ * sample rate is zero or the {@code taxi.trace} logger is below info.
+ */
+public class DaoTracer {
+    private static final Logger logger = LogManager.getLogger(DaoTracer.class);
+    private static final long NO_ROW_COUNT = -1;
+    private static volatile double sampleRate =
+            Double.parseDouble(ApplicationProperties.getString("trace.dao.sample.rate", "0"));
+
+    public static double getSampleRate() {
+        return sampleRate;
+    }
+
+    public static void setSampleRate(double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1, but was "
+                    + rate);
+        }
+        sampleRate = rate;
+    }
+
+    public static Object trace(Object dao) {
+        Class<?> daoClass = dao.getClass();
+        return Proxy.newProxyInstance(daoClass.getClassLoader(), daoClass.getInterfaces(),
+                new TracingHandler(dao));
+    }
+
+    private static boolean isSampled() {
+        double rate = sampleRate;
+        return rate > 0 && logger.isInfoEnabled()
+                && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private static long countRows(Object result, RowCounter rowCounter) {
+        if (rowCounter != null) {
+            return rowCounter.count;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        return NO_ROW_COUNT;
+    }
+
+    private static class TracingHandler implements InvocationHandler {
+        private final Object dao;
+        private final String daoName;
+        private final Map<Method, Operation> operations = new ConcurrentHashMap<>();
+
+        TracingHandler(Object dao) {
+            this.dao = dao;
+            this.daoName = dao.getClass().getInterfaces()[0].getSimpleName();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeDao(method, args);
+            }
+            Operation operation = operations.computeIfAbsent(method, this::createOperation);
+            boolean sampled = isSampled();
+            RowCounter rowCounter = countConsumedRows(args);
+            long borrowed = ConnectionPool.getBorrowedByCurrentThread();
+            long start = System.nanoTime();
+            try {
+                Object result = invokeDao(method, args);
+                long elapsed = System.nanoTime() - start;
+                long rows = countRows(result, rowCounter);
+                operation.timer.record(elapsed, rows,
+                        ConnectionPool.getBorrowedByCurrentThread() - borrowed);
+                if (!sampled) {
+                    return result;
+                }
+                if (rows == NO_ROW_COUNT) {
+                    logger.info("{} {}us", operation.callId, elapsed / 1000);
+                } else {
+                    logger.info("{} {}us rows={}", operation.callId, elapsed / 1000, rows);
+                }
+                return result;
+            } catch (Throwable e) {
+                long elapsed = System.nanoTime() - start;
+                operation.timer.recordError(elapsed,
+                        ConnectionPool.getBorrowedByCurrentThread() - borrowed);
+                if (sampled) {
+                    logger.info("{} {}us failed={}", operation.callId, elapsed / 1000,
+                            e.getClass().getSimpleName());
+                }
+                throw e;
+            }
+        }
+
+        private Operation createOperation(Method method) {
+            String callId = daoName + "." + method.getName();
+            return new Operation(callId, MetricsRegistry.timer("dao_call_seconds",
+                    "Latency of DAO calls", MetricsRegistry.label("operation", callId)));
+        }
+
+        private Object invokeDao(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(dao, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private RowCounter countConsumedRows(Object[] args) {
+            if (args == null) {
+                return null;
+            }
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] instanceof Consumer) {
+                    RowCounter rowCounter = new RowCounter((Consumer<Object>) args[i]);
+                    args[i] = rowCounter;
+                    return rowCounter;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class Operation {
+        private final String callId;
+        private final Timer timer;
+
+        Operation(String callId, Timer timer) {
+            this.callId = callId;
+            this.timer = timer;
+        }
+    }
+
+    private static class RowCounter implements Consumer<Object> {
+        private final Consumer<Object> action;
+        private long count;
+
+        RowCounter(Consumer<Object> action) {
+            this.action = action;
+        }
+
+        @Override
+        public void accept(Object row) {
+            count++;
+            action.accept(row);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package taxi.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+public class ApplicationProperties {
+    private static final String PROPERTIES_FILE = "application.properties";
+    private static final Properties properties = load();
+
+    public static String getString(String key) {
+        String value = System.getProperty(key, properties.getProperty(key));
+        if (value == null) {
+            throw new RuntimeException("Property " + key + " isn't set in " + PROPERTIES_FILE);
+        }
+        return value.trim();
+    }
+
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key, properties.getProperty(key));
+        return value == null ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Returns all properties whose key starts with the prefix, with the prefix removed.
+     */
+    public static Properties getProperties(String prefix) {
+        Properties subset = new Properties();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                subset.setProperty(key.substring(prefix.length()), getString(key));
+            }
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                subset.setProperty(key.substring(prefix.length()), System.getProperty(key));
+            }
+        }
+        return subset;
+    }
+
+    private static Properties load() {
+        Properties loaded = new Properties();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = ApplicationProperties.class.getClassLoader();
+        }
+        try (InputStream inputStream = classLoader.getResourceAsStream(PROPERTIES_FILE)) {
+            if (inputStream != null) {
+                loaded.load(inputStream);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Can't read " + PROPERTIES_FILE, e);
+        }
+        return loaded;
+    }
+}
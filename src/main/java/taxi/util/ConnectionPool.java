@@ -0,0 +1,191 @@
+package taxi.util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Bounded pool of physical connections. Idle connections are reused in LIFO order,
+ * validated on borrow unless they were used moments ago, and evicted by a background
+ * housekeeper once they exceed the idle timeout or the maximum lifetime. Every physical
+ * connection keeps its own cache of prepared statements that lives as long as it does.
+ */
+public class ConnectionPool {
+    private static final Logger logger = LogManager.getLogger(ConnectionPool.class);
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final ThreadLocal<long[]> borrowsOfThread =
+            ThreadLocal.withInitial(() -> new long[1]);
+    private final String url;
+    private final Properties connectionProperties;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idleConnections = new ConcurrentLinkedDeque<>();
+    private final ScheduledExecutorService housekeeper;
+    private final LongAdder borrowedCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder borrowWaitNanos = new LongAdder();
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, Properties connectionProperties, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis,
+                          long maxLifetimeMillis, int validationTimeoutSeconds,
+                          long housekeepingPeriodMillis, int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive, but was " + maxSize);
+        }
+        this.url = url;
+        this.connectionProperties = connectionProperties;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::evictIdleConnections,
+                housekeepingPeriodMillis, housekeepingPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        acquirePermit();
+        borrowWaitNanos.add(System.nanoTime() - start);
+        borrowedCount.increment();
+        borrowsOfThread.get()[0]++;
+        try {
+            PooledConnection pooledConnection;
+            while ((pooledConnection = idleConnections.pollFirst()) != null) {
+                if (isUsable(pooledConnection)) {
+                    return pooledConnection.lease();
+                }
+                pooledConnection.closePhysically();
+            }
+            return new PooledConnection(DriverManager.getConnection(url, connectionProperties),
+                    this, statementCacheSize).lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActiveConnections() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public int getIdleConnections() {
+        return idleConnections.size();
+    }
+
+    public long getBorrowedCount() {
+        return borrowedCount.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    public long getBorrowWaitNanos() {
+        return borrowWaitNanos.sum();
+    }
+
+    /**
+     * Number of connections the calling thread has borrowed so far. The difference of two
+     * readings tells how many connections the code in between took from the pool.
+     */
+    public static long getBorrowedByCurrentThread() {
+        return borrowsOfThread.get()[0];
+    }
+
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idleConnections.pollFirst()) != null) {
+            pooledConnection.closePhysically();
+        }
+    }
+
+    void release(PooledConnection pooledConnection) {
+        try {
+            if (closed || pooledConnection.isBroken()
+                    || pooledConnection.isExpired(maxLifetimeMillis, System.currentTimeMillis())) {
+                pooledConnection.closePhysically();
+                return;
+            }
+            pooledConnection.reset();
+            idleConnections.offerFirst(pooledConnection);
+        } catch (SQLException e) {
+            logger.warn("Can't reset a connection returned to the pool, closing it", e);
+            pooledConnection.closePhysically();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquirePermit() throws SQLException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                throw new SQLTransientConnectionException("Timed out after "
+                        + borrowTimeoutMillis + " ms waiting for a connection, pool size is "
+                        + maxSize);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooledConnection) {
+        long now = System.currentTimeMillis();
+        if (pooledConnection.isExpired(maxLifetimeMillis, now)) {
+            return false;
+        }
+        if (now - pooledConnection.getLastUsedAt() < VALIDATION_BYPASS_MILLIS) {
+            return !pooledConnection.isBroken();
+        }
+        return pooledConnection.isValid(validationTimeoutSeconds);
+    }
+
+    private void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> iterator = idleConnections.iterator();
+        while (iterator.hasNext()) {
+            PooledConnection pooledConnection = iterator.next();
+            if ((pooledConnection.isIdleLongerThan(idleTimeoutMillis, now)
+                    || pooledConnection.isExpired(maxLifetimeMillis, now))
+                    && idleConnections.remove(pooledConnection)) {
+                pooledConnection.closePhysically();
+            }
+        }
+    }
+}
@@ -1,16 +1,19 @@
 package taxi.util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Properties;
 
 public class ConnectionUtil {
-    private static final String URL = "YOUR LOCALHOST";
-    //YOUR DATABASE URL
-    private static final String USERNAME = "YOUR USERNAME";
-    private static final String PASSWORD = "YOUR PASSWORD";
-    private static final String JDBC_DRIVER = "YOUR DRIVER";
+    private static final String URL = ApplicationProperties.getString("db.url");
+    private static final String USERNAME = ApplicationProperties.getString("db.user");
+    private static final String PASSWORD = ApplicationProperties.getString("db.password");
+    private static final String JDBC_DRIVER = ApplicationProperties.getString("db.driver");
+    private static final int STREAMING_FETCH_SIZE =
+            ApplicationProperties.getInt("db.streaming.fetch.size", Integer.MIN_VALUE);
+    private static final ConnectionPool pool;
 
     static {
         try {
@@ -18,14 +21,51 @@ public class ConnectionUtil {
         } catch (ClassNotFoundException e) {
             throw new RuntimeException("Can't find SQL Driver", e);
         }
+        Properties dbProperties = ApplicationProperties.getProperties("db.connection.");
+        dbProperties.setProperty("user", USERNAME);
+        dbProperties.setProperty("password", PASSWORD);
+        pool = new ConnectionPool(URL, dbProperties,
+                ApplicationProperties.getInt("db.pool.max.size", 10),
+                ApplicationProperties.getLong("db.pool.borrow.timeout.ms", 30000),
+                ApplicationProperties.getLong("db.pool.idle.timeout.ms", 600000),
+                ApplicationProperties.getLong("db.pool.max.lifetime.ms", 1800000),
+                ApplicationProperties.getInt("db.pool.validation.timeout.sec", 5),
+                ApplicationProperties.getLong("db.pool.housekeeping.period.ms", 30000),
+                ApplicationProperties.getInt("db.pool.statement.cache.size", 50));
     }
 
     public static Connection getConnection() {
-        Properties dbProperties = new Properties();
-        dbProperties.setProperty("user", USERNAME);
-        dbProperties.setProperty("password", PASSWORD);
+        Connection transactionalConnection = TransactionManager.getTransactionalConnection();
+        if (transactionalConnection != null) {
+            return transactionalConnection;
+        }
+        return getPhysicalConnection();
+    }
+
+    /**
+     * Prepares a forward-only, read-only statement whose rows are streamed from the server
+     * instead of being buffered in memory. The MySQL driver streams row by row only with
+     * a fetch size of {@code Integer.MIN_VALUE}, other drivers need a positive one.
+     */
+    public static PreparedStatement prepareStreamingStatement(Connection connection,
+                                                              String query) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(query,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(STREAMING_FETCH_SIZE);
+        return statement;
+    }
+
+    public static ConnectionPool getPool() {
+        return pool;
+    }
+
+    public static void shutdown() {
+        pool.close();
+    }
+
+    static Connection getPhysicalConnection() {
         try {
-            return DriverManager.getConnection(URL, dbProperties);
+            return pool.getConnection();
         } catch (SQLException e) {
             throw new RuntimeException("Can't create connection to DB ", e);
         }
@@ -0,0 +1,126 @@
+package taxi.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time, so a file of any size can be imported without
+ * loading it first. Quoted fields may contain separators, doubled quotes and line breaks;
+ * records may end with either LF or CRLF.
+ */
+public class CsvReader implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int EOF = -1;
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder field = new StringBuilder();
+    private int position;
+    private int limit;
+    private long lineNumber = 1;
+    private long recordLineNumber;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Returns the fields of the next record, or null at the end of the input. Blank lines
+     * are skipped.
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            skipLineBreak(c);
+            c = read();
+        }
+        if (c == EOF) {
+            return null;
+        }
+        recordLineNumber = lineNumber;
+        List<String> fields = new ArrayList<>();
+        while (true) {
+            field.setLength(0);
+            if (c == '"') {
+                c = readQuoted();
+            } else {
+                while (c != ',' && c != '\r' && c != '\n' && c != EOF) {
+                    field.append((char) c);
+                    c = read();
+                }
+            }
+            fields.add(field.toString());
+            if (c == ',') {
+                c = read();
+                continue;
+            }
+            if (c != EOF) {
+                skipLineBreak(c);
+            }
+            return fields;
+        }
+    }
+
+    /**
+     * Returns the line on which the record last returned by {@link #next()} starts.
+     */
+    public long getLineNumber() {
+        return recordLineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int readQuoted() throws IOException {
+        long startLine = lineNumber;
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                throw new IOException("Unterminated quoted field starting on line " + startLine);
+            }
+            if (c == '"') {
+                c = read();
+                if (c != '"') {
+                    if (c != ',' && c != '\r' && c != '\n' && c != EOF) {
+                        throw new IOException("Unexpected character after a quoted field on line "
+                                + lineNumber);
+                    }
+                    return c;
+                }
+            } else if (c == '\n') {
+                lineNumber++;
+            }
+            field.append((char) c);
+        }
+    }
+
+    private void skipLineBreak(int c) throws IOException {
+        lineNumber++;
+        if (c == '\r' && peek() == '\n') {
+            position++;
+        }
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c != EOF) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = Math.max(in.read(buffer, 0, BUFFER_SIZE), 0);
+            position = 0;
+            if (limit == 0) {
+                return EOF;
+            }
+        }
+        return buffer[position];
+    }
+}
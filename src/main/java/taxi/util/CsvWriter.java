@@ -0,0 +1,58 @@
+package taxi.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes RFC 4180 CSV records straight to a {@link Writer}. Fields are quoted only when
+ * they contain a separator, a quote or a line break; null is written as an empty field.
+ */
+public class CsvWriter {
+    private final Writer out;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void writeRecord(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (fields[i] != null) {
+                writeField(fields[i].toString());
+            }
+        }
+        out.write("\r\n");
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeField(String field) throws IOException {
+        if (!needsQuotes(field)) {
+            out.write(field);
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        for (int i = field.indexOf('"'); i >= 0; i = field.indexOf('"', i + 1)) {
+            out.write(field, start, i + 1 - start);
+            out.write('"');
+            start = i + 1;
+        }
+        out.write(field, start, field.length() - start);
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
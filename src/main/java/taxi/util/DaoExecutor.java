@@ -0,0 +1,114 @@
+package taxi.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Runs the database work of asynchronous requests off the container threads. On a JDK
+ * with virtual threads every task gets one, otherwise tasks share a fixed pool of
+ * {@code async.dao.threads} platform threads. Either way at most
+ * {@code async.dao.max.tasks} tasks may be running or waiting; more are rejected, so
+ * that an overloaded node answers quickly instead of queueing without end. A task holds
+ * its slot until its body returns, even when it is cancelled while running, since it may
+ * still hold a pooled connection until then.
+ */
+public class DaoExecutor {
+    private static final Logger logger = LogManager.getLogger(DaoExecutor.class);
+    private static final int MAX_TASKS = ApplicationProperties.getInt("async.dao.max.tasks", 1000);
+    private static final Semaphore permits = new Semaphore(MAX_TASKS);
+    private static final LongAdder rejectedTasks = new LongAdder();
+    private static final ExecutorService virtualThreadExecutor = createVirtualThreadExecutor();
+    private static final ExecutorService executor = virtualThreadExecutor != null
+            ? virtualThreadExecutor : createPlatformThreadExecutor();
+
+    public static Future<?> submit(Runnable task) {
+        if (!permits.tryAcquire()) {
+            rejectedTasks.increment();
+            throw new RejectedExecutionException("Too many database tasks, " + MAX_TASKS
+                    + " are already running or waiting");
+        }
+        AtomicBoolean claimed = new AtomicBoolean();
+        Runnable body = () -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        };
+        FutureTask<Void> future = new FutureTask<>(body, null) {
+            @Override
+            protected void done() {
+                if (claimed.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        };
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            rejectedTasks.increment();
+            throw e;
+        }
+        return future;
+    }
+
+    public static boolean usesVirtualThreads() {
+        return virtualThreadExecutor != null;
+    }
+
+    public static int getPendingTaskCount() {
+        return MAX_TASKS - permits.availablePermits();
+    }
+
+    public static long getRejectedTaskCount() {
+        return rejectedTasks.sum();
+    }
+
+    public static void shutdown() {
+        executor.shutdown();
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        if (!ApplicationProperties.getBoolean("async.dao.virtual.threads", true)) {
+            return null;
+        }
+        try {
+            ExecutorService virtualExecutor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            logger.info("Database tasks run on virtual threads");
+            return virtualExecutor;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService createPlatformThreadExecutor() {
+        int threads = ApplicationProperties.getInt("async.dao.threads", 32);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "dao-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        logger.info("Database tasks run on {} platform threads", threads);
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+    }
+}
@@ -0,0 +1,188 @@
+package taxi.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import taxi.metrics.MetricsRegistry;
+
+/**
+ * Bounded read-through cache with a time to live. When it is full, the entry with the
+ * fewest recent hits among a small sample is evicted; hit counts are halved periodically
+ * so that entries popular long ago don't stay forever. Every cache is listed in
+ * {@link #getCaches()} and exports its gauges until {@link #unregister()} is called.
+ */
+public class ExpiringCache<K, V> {
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+    private static final int AGING_PERIOD_FACTOR = 10;
+    private static final List<ExpiringCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+    private final String name;
+    private final int maxSize;
+    private final long timeToLiveMillis;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicInteger hitsSinceAging = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final Map<String, DoubleSupplier> gauges = new LinkedHashMap<>();
+
+    public ExpiringCache(String name, int maxSize, long timeToLiveMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive, but was " + maxSize);
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.timeToLiveMillis = timeToLiveMillis;
+        caches.add(this);
+        registerGauges();
+    }
+
+    public static List<ExpiringCache<?, ?>> getCaches() {
+        return caches;
+    }
+
+    /**
+     * Removes the cache from {@link #getCaches()} and its gauges from the metrics, so that
+     * the cache can be collected. Meant for caches that don't live as long as the
+     * application, such as those made by tests.
+     */
+    public void unregister() {
+        caches.remove(this);
+        String labels = MetricsRegistry.label("cache", name);
+        gauges.forEach((gaugeName, value) ->
+                MetricsRegistry.removeGauge(gaugeName, labels, value));
+    }
+
+    /**
+     * Returns the cached value or loads it. Null values are not cached. A value loaded
+     * while the cache was being invalidated isn't stored, since it may already be stale.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long now = System.currentTimeMillis();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            entry.frequency.incrementAndGet();
+            hits.increment();
+            ageIfNeeded();
+            return entry.value;
+        }
+        misses.increment();
+        long invalidationsBeforeLoad = invalidations.get();
+        V value = loader.apply(key);
+        if (value != null && invalidations.get() == invalidationsBeforeLoad) {
+            put(key, value, now);
+        }
+        return value;
+    }
+
+    public void invalidate(K key) {
+        invalidations.incrementAndGet();
+        entries.remove(key);
+    }
+
+    public void invalidateIf(BiPredicate<? super K, ? super V> predicate) {
+        invalidations.incrementAndGet();
+        entries.entrySet().removeIf(entry ->
+                predicate.test(entry.getKey(), entry.getValue().value));
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private void registerGauges() {
+        registerGauge("cache_hits_total", "counter", "Cache hits", this::getHitCount);
+        registerGauge("cache_misses_total", "counter", "Cache misses", this::getMissCount);
+        registerGauge("cache_evictions_total", "counter", "Cache evictions",
+                this::getEvictionCount);
+        registerGauge("cache_size", "gauge", "Cached entries", this::size);
+    }
+
+    private void registerGauge(String gaugeName, String type, String help,
+                               DoubleSupplier value) {
+        gauges.put(gaugeName, value);
+        MetricsRegistry.gauge(gaugeName, type, help, MetricsRegistry.label("cache", name),
+                value);
+    }
+
+    private void put(K key, V value, long now) {
+        if (!entries.containsKey(key)) {
+            while (entries.size() >= maxSize) {
+                evictOne(now);
+            }
+        }
+        entries.put(key, new Entry<>(value, now + timeToLiveMillis));
+    }
+
+    private void evictOne(long now) {
+        K victim = null;
+        int victimFrequency = Integer.MAX_VALUE;
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE_SIZE && iterator.hasNext(); i++) {
+            Map.Entry<K, Entry<V>> candidate = iterator.next();
+            if (candidate.getValue().expiresAt <= now) {
+                victim = candidate.getKey();
+                break;
+            }
+            int frequency = candidate.getValue().frequency.get();
+            if (frequency < victimFrequency) {
+                victim = candidate.getKey();
+                victimFrequency = frequency;
+            }
+        }
+        if (victim != null && entries.remove(victim) != null) {
+            evictions.increment();
+        }
+    }
+
+    private void ageIfNeeded() {
+        if (hitsSinceAging.incrementAndGet() < maxSize * AGING_PERIOD_FACTOR) {
+            return;
+        }
+        hitsSinceAging.set(0);
+        for (Entry<V> entry : entries.values()) {
+            entry.frequency.updateAndGet(frequency -> frequency >> 1);
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+        private final AtomicInteger frequency = new AtomicInteger();
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package taxi.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing on a small dedicated pool with a bounded queue, so that a burst
+ * of logins or sign-ups hashes on a fixed number of threads, or is refused, instead of on
+ * the callers' threads or the common pool. The callers still block while they wait, which
+ * is why the login and sign-up servlets call in from the {@link DaoExecutor}. A caller
+ * waits at most {@code security.hashing.timeout.ms} for its task to start and is refused
+ * if it doesn't. PBKDF2 can't be interrupted, so a task that has started is always waited
+ * for rather than cancelled, which would leave it running with nobody to use its result.
+ * Bulk work keeps at most half of the threads busy, so logins still find one.
+ */
+public class HashingExecutor {
+    private static final long START_TIMEOUT_MILLIS =
+            ApplicationProperties.getLong("security.hashing.timeout.ms", 10000);
+    private static final ThreadPoolExecutor executor = createExecutor();
+
+    /**
+     * Runs the task on the pool and returns its result.
+     *
+     * @throws RejectedExecutionException if the queue is full or the task didn't start in
+     *         time
+     */
+    public static <T> T call(Callable<T> task) {
+        FutureTask<T> future = submit(task);
+        try {
+            return future.get(START_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (executor.remove(future)) {
+                throw new RejectedExecutionException("No hashing thread became free within "
+                        + START_TIMEOUT_MILLIS + " ms");
+            }
+            return await(future);
+        } catch (InterruptedException e) {
+            executor.remove(future);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for hashing", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Runs the tasks on the pool, at most half as many at a time as there are threads,
+     * and returns their results in order. A task refused because the queue is full is
+     * submitted again once an earlier one has finished.
+     *
+     * @throws RejectedExecutionException if the queue is full while none of the tasks runs
+     */
+    public static <T> List<T> callAll(List<? extends Callable<T>> tasks) {
+        int window = Math.max(1, executor.getMaximumPoolSize() / 2);
+        List<T> results = new ArrayList<>(tasks.size());
+        Deque<FutureTask<T>> running = new ArrayDeque<>(window);
+        for (Callable<T> task : tasks) {
+            if (running.size() == window) {
+                results.add(await(running.pollFirst()));
+            }
+            while (true) {
+                try {
+                    running.addLast(submit(task));
+                    break;
+                } catch (RejectedExecutionException e) {
+                    if (running.isEmpty()) {
+                        throw e;
+                    }
+                    results.add(await(running.pollFirst()));
+                }
+            }
+        }
+        while (!running.isEmpty()) {
+            results.add(await(running.pollFirst()));
+        }
+        return results;
+    }
+
+    public static int getQueuedTaskCount() {
+        return executor.getQueue().size();
+    }
+
+    public static int getActiveTaskCount() {
+        return executor.getActiveCount();
+    }
+
+    private static <T> FutureTask<T> submit(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        executor.execute(future);
+        return future;
+    }
+
+    /**
+     * Waits for a task that has started, which always finishes in the time of one hash.
+     */
+    private static <T> T await(FutureTask<T> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw unwrap(e);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+            return (RuntimeException) e.getCause();
+        }
+        return new RuntimeException("Password hashing failed", e.getCause());
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        int threads = ApplicationProperties.getInt("security.hashing.threads",
+                Runtime.getRuntime().availableProcessors());
+        int queueSize = ApplicationProperties.getInt("security.hashing.queue.size", 100);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable,
+                    "password-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,111 @@
+package taxi.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps tokens to posting lists of ids, each kept as a sorted {@code long[]}. A query
+ * intersects the lists of its tokens starting from the shortest one, stepping through
+ * the longer lists by binary search, so its cost follows the rarest token rather than
+ * the most common one. Not thread-safe.
+ */
+public class InvertedIndex {
+    private static final long[] NO_IDS = new long[0];
+    private final Map<String, Postings> postingsByToken = new HashMap<>();
+
+    public void add(String token, long id) {
+        postingsByToken.computeIfAbsent(token, key -> new Postings()).add(id);
+    }
+
+    public void remove(String token, long id) {
+        Postings postings = postingsByToken.get(token);
+        if (postings != null && postings.remove(id) && postings.size == 0) {
+            postingsByToken.remove(token);
+        }
+    }
+
+    /**
+     * Returns the ids indexed under every one of the tokens, in ascending order.
+     */
+    public long[] findAll(Collection<String> tokens) {
+        if (tokens.isEmpty()) {
+            return NO_IDS;
+        }
+        Postings[] lists = new Postings[tokens.size()];
+        int count = 0;
+        for (String token : tokens) {
+            Postings postings = postingsByToken.get(token);
+            if (postings == null) {
+                return NO_IDS;
+            }
+            lists[count++] = postings;
+        }
+        Arrays.sort(lists, (first, second) -> Integer.compare(first.size, second.size));
+        long[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int resultSize = result.length;
+        for (int i = 1; i < lists.length && resultSize > 0; i++) {
+            resultSize = intersect(result, resultSize, lists[i]);
+        }
+        return resultSize == result.length ? result : Arrays.copyOf(result, resultSize);
+    }
+
+    public void clear() {
+        postingsByToken.clear();
+    }
+
+    /**
+     * Number of distinct tokens.
+     */
+    public int size() {
+        return postingsByToken.size();
+    }
+
+    /**
+     * Keeps in {@code ids} only those also in the postings and returns how many remain.
+     */
+    private static int intersect(long[] ids, int size, Postings postings) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < size && from < postings.size; i++) {
+            int index = Arrays.binarySearch(postings.ids, from, postings.size, ids[i]);
+            if (index >= 0) {
+                ids[kept++] = ids[i];
+                from = index + 1;
+            } else {
+                from = -index - 1;
+            }
+        }
+        return kept;
+    }
+
+    private static class Postings {
+        private long[] ids = NO_IDS;
+        private int size;
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
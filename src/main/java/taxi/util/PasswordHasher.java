@@ -0,0 +1,105 @@
+package taxi.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Salted PBKDF2 password hashes stored as {@code pbkdf2$iterations$salt$hash}. The cost
+ * is part of every hash, so hashes made with an older iteration count still verify and
+ * can be recognized for rehashing. Passwords stored before hashing was introduced are
+ * compared as plain text.
+ */
+public class PasswordHasher {
+    private static final String PREFIX = "pbkdf2";
+    private static final String SEPARATOR = "$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_LENGTH = 16;
+    private static final int KEY_LENGTH = 256;
+    private static final int ITERATIONS =
+            ApplicationProperties.getInt("security.password.hash.iterations", 210000);
+    private static final SecureRandom random = new SecureRandom();
+    private static final LongAdder hashCount = new LongAdder();
+    private static final LongAdder hashTimeNanos = new LongAdder();
+    private static final AtomicLong maxHashTimeNanos = new AtomicLong();
+
+    public static String hash(String password) {
+        return hash(password, ITERATIONS);
+    }
+
+    /**
+     * Hashes with a cost other than the configured one. Such hashes are rehashed with the
+     * configured cost on the next successful login.
+     */
+    public static String hash(String password, int iterations) {
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + SEPARATOR + iterations
+                + SEPARATOR + encoder.encodeToString(salt)
+                + SEPARATOR + encoder.encodeToString(pbkdf2(password, salt, iterations));
+    }
+
+    public static boolean verify(String password, String storedPassword) {
+        if (password == null || storedPassword == null) {
+            return false;
+        }
+        if (!isEncoded(storedPassword)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = storedPassword.split("\\" + SEPARATOR);
+        Base64.Decoder decoder = Base64.getDecoder();
+        byte[] expectedHash = decoder.decode(parts[3]);
+        byte[] actualHash = pbkdf2(password, decoder.decode(parts[2]),
+                Integer.parseInt(parts[1]));
+        return MessageDigest.isEqual(expectedHash, actualHash);
+    }
+
+    public static boolean isEncoded(String storedPassword) {
+        return storedPassword != null && storedPassword.startsWith(PREFIX + SEPARATOR)
+                && storedPassword.split("\\" + SEPARATOR).length == 4;
+    }
+
+    /**
+     * Tells whether the stored password is plain text or was hashed with another cost.
+     */
+    public static boolean needsRehash(String storedPassword) {
+        return !isEncoded(storedPassword)
+                || !storedPassword.split("\\" + SEPARATOR)[1].equals(String.valueOf(ITERATIONS));
+    }
+
+    public static long getHashCount() {
+        return hashCount.sum();
+    }
+
+    public static long getHashTimeNanos() {
+        return hashTimeNanos.sum();
+    }
+
+    public static long getMaxHashTimeNanos() {
+        return maxHashTimeNanos.get();
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        long start = System.nanoTime();
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_LENGTH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Can't hash a password with " + ALGORITHM, e);
+        } finally {
+            spec.clearPassword();
+            long elapsed = System.nanoTime() - start;
+            hashCount.increment();
+            hashTimeNanos.add(elapsed);
+            maxHashTimeNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package taxi.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+class PooledConnection {
+    private static final String CONNECTION_ERROR_STATE = "08";
+    private final Connection physicalConnection;
+    private final ConnectionPool pool;
+    private final StatementCache statementCache;
+    private final long createdAt;
+    private volatile long lastUsedAt;
+    private volatile boolean broken;
+
+    PooledConnection(Connection physicalConnection, ConnectionPool pool,
+                     int statementCacheSize) {
+        this.physicalConnection = physicalConnection;
+        this.pool = pool;
+        this.statementCache = new StatementCache(physicalConnection, statementCacheSize);
+        this.createdAt = System.currentTimeMillis();
+        this.lastUsedAt = createdAt;
+    }
+
+    Connection lease() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new LeaseHandler());
+    }
+
+    boolean isExpired(long maxLifetimeMillis, long now) {
+        return maxLifetimeMillis > 0 && now - createdAt >= maxLifetimeMillis;
+    }
+
+    boolean isIdleLongerThan(long idleTimeoutMillis, long now) {
+        return idleTimeoutMillis > 0 && now - lastUsedAt >= idleTimeoutMillis;
+    }
+
+    boolean isValid(int validationTimeoutSeconds) {
+        try {
+            return !broken && physicalConnection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    long getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    void reset() throws SQLException {
+        if (!physicalConnection.getAutoCommit()) {
+            physicalConnection.rollback();
+            physicalConnection.setAutoCommit(true);
+        }
+        if (physicalConnection.isReadOnly()) {
+            physicalConnection.setReadOnly(false);
+        }
+        physicalConnection.clearWarnings();
+        lastUsedAt = System.currentTimeMillis();
+    }
+
+    void closePhysically() {
+        statementCache.closeAll();
+        try {
+            physicalConnection.close();
+        } catch (SQLException e) {
+            broken = true;
+        }
+    }
+
+    private class LeaseHandler implements InvocationHandler {
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physicalConnection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physicalConnection + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection was already returned to the pool");
+            }
+            try {
+                if (method.getName().equals("prepareStatement")) {
+                    Object cachedStatement = statementCache.prepareStatement((Connection) proxy,
+                            args);
+                    if (cachedStatement != null) {
+                        return cachedStatement;
+                    }
+                    PreparedStatement statement =
+                            (PreparedStatement) method.invoke(physicalConnection, args);
+                    return SlowQueryLog.isEnabled()
+                            ? QueryRecorder.record(statement, (String) args[0]) : statement;
+                }
+                return method.invoke(physicalConnection, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException && isConnectionError((SQLException) cause)) {
+                    broken = true;
+                }
+                throw cause;
+            }
+        }
+
+        private boolean isConnectionError(SQLException e) {
+            String sqlState = e.getSQLState();
+            return sqlState != null && sqlState.startsWith(CONNECTION_ERROR_STATE);
+        }
+    }
+}
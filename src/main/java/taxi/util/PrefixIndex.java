@@ -0,0 +1,192 @@
+package taxi.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.function.LongPredicate;
+
+/**
+ * Maps string keys to ids and finds the ids of all keys that start with a prefix. The
+ * keys form a trie whose nodes keep their children in sorted arrays, so a lookup walks
+ * one node per character of the prefix and then only as much of the subtree as the
+ * limit asks for. Ids of the key equal to the prefix come first, the rest follow in key
+ * order. Every node counts the ids below it, so the number of matches of a prefix is
+ * known without visiting them. Not thread-safe.
+ */
+public class PrefixIndex {
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+    private Node root = new Node();
+    private int size;
+
+    public void add(String key, long id) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].getOrAddChild(key.charAt(i));
+        }
+        if (!path[key.length()].addId(id)) {
+            return;
+        }
+        size++;
+        for (Node node : path) {
+            node.subtreeIdCount++;
+        }
+    }
+
+    public void remove(String key, long id) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            Node child = path[i].getChild(key.charAt(i));
+            if (child == null) {
+                return;
+            }
+            path[i + 1] = child;
+        }
+        if (!path[key.length()].removeId(id)) {
+            return;
+        }
+        size--;
+        for (Node node : path) {
+            node.subtreeIdCount--;
+        }
+        for (int i = key.length(); i > 0 && path[i].isEmpty(); i--) {
+            path[i - 1].removeChild(key.charAt(i - 1));
+        }
+    }
+
+    /**
+     * Adds the ids of the keys starting with the prefix to the result until it holds
+     * {@code limit} ids.
+     */
+    public void find(String prefix, int limit, Collection<Long> result) {
+        find(prefix, limit, id -> true, result);
+    }
+
+    /**
+     * Like {@link #find(String, int, Collection)}, but adds only the ids the filter
+     * accepts, and keeps looking until it has found {@code limit} of them.
+     */
+    public void find(String prefix, int limit, LongPredicate filter, Collection<Long> result) {
+        Node node = findNode(prefix);
+        if (node == null) {
+            return;
+        }
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty() && result.size() < limit) {
+            Node current = stack.pop();
+            for (int i = 0; i < current.idCount && result.size() < limit; i++) {
+                if (filter.test(current.ids[i])) {
+                    result.add(current.ids[i]);
+                }
+            }
+            for (int i = current.childCount - 1; i >= 0; i--) {
+                stack.push(current.children[i]);
+            }
+        }
+    }
+
+    /**
+     * Number of key and id pairs whose key starts with the prefix.
+     */
+    public int count(String prefix) {
+        Node node = findNode(prefix);
+        return node == null ? 0 : node.subtreeIdCount;
+    }
+
+    public void clear() {
+        root = new Node();
+        size = 0;
+    }
+
+    /**
+     * Number of key and id pairs in the index.
+     */
+    public int size() {
+        return size;
+    }
+
+    private Node findNode(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.getChild(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private static class Node {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+        private long[] ids = NO_IDS;
+        private int idCount;
+        private int subtreeIdCount;
+
+        Node getChild(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node getOrAddChild(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            if (childCount == labels.length) {
+                int capacity = Math.max(2, childCount * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(labels, insertAt, labels, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+            Node child = new Node();
+            labels[insertAt] = label;
+            children[insertAt] = child;
+            childCount++;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(labels, index + 1, labels, index, childCount - index - 1);
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+
+        boolean addId(long id) {
+            for (int i = 0; i < idCount; i++) {
+                if (ids[i] == id) {
+                    return false;
+                }
+            }
+            if (idCount == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(1, idCount * 2));
+            }
+            ids[idCount++] = id;
+            return true;
+        }
+
+        boolean removeId(long id) {
+            for (int i = 0; i < idCount; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--idCount];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isEmpty() {
+            return idCount == 0 && childCount == 0;
+        }
+    }
+}
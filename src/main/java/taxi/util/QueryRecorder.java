@@ -0,0 +1,146 @@
+package taxi.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Follows the executions of one prepared statement for the {@link SlowQueryLog}. It
+ * remembers the bound parameters and times each execution together with the fetching
+ * of its rows, which the returned result set counts as they are read.
+ */
+class QueryRecorder {
+    private final String sql;
+    private final List<Object> parameters = new ArrayList<>();
+    private long elapsedNanos;
+    private long rows;
+    private boolean fetching;
+
+    QueryRecorder(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * Wraps a statement that doesn't come from the statement cache.
+     */
+    static PreparedStatement record(PreparedStatement statement, String sql) {
+        QueryRecorder recorder = new QueryRecorder(sql);
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("close")) {
+                recorder.finish();
+            }
+            try {
+                return recorder.invoke(statement, method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, handler);
+    }
+
+    /**
+     * Invokes the method on the statement, recording parameters and executions on the
+     * way. Exceptions of the statement are thrown as {@link InvocationTargetException}.
+     */
+    Object invoke(PreparedStatement statement, Method method, Object[] args)
+            throws IllegalAccessException, InvocationTargetException {
+        String name = method.getName();
+        if (args == null && name.startsWith("execute")) {
+            return execute(statement, method);
+        }
+        if (name.startsWith("set") && args != null && args.length >= 2
+                && args[0] instanceof Integer) {
+            setParameter((Integer) args[0], name.equals("setNull") ? null : args[1]);
+        } else if (name.equals("clearParameters")) {
+            parameters.clear();
+        }
+        return method.invoke(statement, args);
+    }
+
+    /**
+     * Completes the pending execution, if any, once its rows are no longer read.
+     */
+    void finish() {
+        if (fetching) {
+            fetching = false;
+            complete(elapsedNanos, rows);
+        }
+    }
+
+    private Object execute(PreparedStatement statement, Method method)
+            throws IllegalAccessException, InvocationTargetException {
+        finish();
+        long start = System.nanoTime();
+        Object result = method.invoke(statement);
+        long elapsed = System.nanoTime() - start;
+        if (result instanceof ResultSet) {
+            elapsedNanos = elapsed;
+            rows = 0;
+            fetching = true;
+            return countRows((ResultSet) result);
+        }
+        complete(elapsed, updateCount(result));
+        return result;
+    }
+
+    private void complete(long elapsed, long rowCount) {
+        if (SlowQueryLog.isSlow(elapsed)) {
+            SlowQueryLog.record(sql, parameters, elapsed, rowCount);
+        }
+    }
+
+    private void setParameter(int index, Object value) {
+        while (parameters.size() < index) {
+            parameters.add(null);
+        }
+        parameters.set(index - 1, value);
+    }
+
+    private ResultSet countRows(ResultSet resultSet) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            boolean next = method.getName().equals("next");
+            long start = next ? System.nanoTime() : 0;
+            Object result;
+            try {
+                result = method.invoke(resultSet, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (next) {
+                elapsedNanos += System.nanoTime() - start;
+                if ((Boolean) result) {
+                    rows++;
+                }
+            } else if (method.getName().equals("close")) {
+                finish();
+            }
+            return result;
+        };
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] {ResultSet.class}, handler);
+    }
+
+    private long updateCount(Object result) {
+        if (result instanceof Number) {
+            return ((Number) result).longValue();
+        }
+        long count = 0;
+        if (result instanceof int[]) {
+            for (int rowCount : (int[]) result) {
+                count += Math.max(rowCount, 0);
+            }
+        } else if (result instanceof long[]) {
+            for (long rowCount : (long[]) result) {
+                count += Math.max(rowCount, 0);
+            }
+        }
+        return count;
+    }
+}
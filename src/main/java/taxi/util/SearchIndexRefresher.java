@@ -0,0 +1,149 @@
+package taxi.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Keeps an in-memory search index in line with the database. The index is built on first
+ * use; afterwards only the ids marked as changed, grouped by a kind such as the entity
+ * type, are reread in one batch before the next search. The database is read by one
+ * refreshing thread at a time without holding the index lock, which is only taken to
+ * swap the entries in, so searches go on meanwhile with the entries they have. Once the
+ * index is built, a search that finds another thread refreshing it doesn't wait for that
+ * thread. Ids whose reread fails are marked as changed again.
+ */
+public class SearchIndexRefresher<K> {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock refreshLock = new ReentrantLock();
+    private final Map<K, Set<Long>> changedIds = new ConcurrentHashMap<>();
+    private final AtomicBoolean built = new AtomicBoolean();
+
+    /**
+     * Lower-case words of the text, split at everything but letters and digits.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public void markChanged(K kind, Collection<Long> ids) {
+        changedIds.computeIfAbsent(kind, key -> ConcurrentHashMap.newKeySet()).addAll(ids);
+    }
+
+    /**
+     * Reads all entries with {@code reader} and hands them to {@code writer} under the
+     * write lock, dropping the changes marked so far.
+     */
+    public <T> void rebuild(Supplier<T> reader, Consumer<T> writer) {
+        refreshLock.lock();
+        try {
+            changedIds.values().forEach(Set::clear);
+            T entries = reader.get();
+            write(() -> writer.accept(entries));
+            built.set(true);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code rebuild} if the index isn't built yet, otherwise passes the ids changed
+     * since the last refresh to {@code reload}, which should read them from the database
+     * and then apply them with {@link #write}. Only the refreshing thread changes the
+     * entries, so {@code reload} may read them without the lock.
+     */
+    public void refresh(Runnable rebuild, Consumer<Map<K, Set<Long>>> reload) {
+        if (built.get() && !hasChanges()) {
+            return;
+        }
+        if (built.get()) {
+            if (!refreshLock.tryLock()) {
+                return;
+            }
+        } else {
+            refreshLock.lock();
+        }
+        try {
+            if (!built.get()) {
+                rebuild.run();
+                return;
+            }
+            Map<K, Set<Long>> ids = drainChanges();
+            if (ids.values().stream().allMatch(Set::isEmpty)) {
+                return;
+            }
+            try {
+                reload.accept(ids);
+            } catch (RuntimeException e) {
+                ids.forEach(this::markChanged);
+                throw e;
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    public <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void write(Runnable writer) {
+        lock.writeLock().lock();
+        try {
+            writer.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean hasChanges() {
+        for (Set<Long> ids : changedIds.values()) {
+            if (!ids.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<K, Set<Long>> drainChanges() {
+        Map<K, Set<Long>> drained = new HashMap<>();
+        for (Map.Entry<K, Set<Long>> entry : changedIds.entrySet()) {
+            Set<Long> ids = new LinkedHashSet<>();
+            Iterator<Long> iterator = entry.getValue().iterator();
+            while (iterator.hasNext()) {
+                ids.add(iterator.next());
+                iterator.remove();
+            }
+            drained.put(entry.getKey(), ids);
+        }
+        return drained;
+    }
+}
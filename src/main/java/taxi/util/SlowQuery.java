@@ -0,0 +1,65 @@
+package taxi.util;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A statement that took longer than the slow query threshold. The duration covers the
+ * execution and the fetching of rows, not the time the caller spent on each row. Only
+ * the types of the parameters are kept, since their values may be logins or password
+ * hashes.
+ */
+public class SlowQuery {
+    private final Instant executedAt;
+    private final String sql;
+    private final List<String> parameterTypes;
+    private final long durationMillis;
+    private final long rows;
+    private volatile String plan;
+
+    SlowQuery(Instant executedAt, String sql, List<String> parameterTypes,
+              long durationMillis, long rows) {
+        this.executedAt = executedAt;
+        this.sql = sql;
+        this.parameterTypes = parameterTypes;
+        this.durationMillis = durationMillis;
+        this.rows = rows;
+    }
+
+    public Instant getExecutedAt() {
+        return executedAt;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<String> getParameterTypes() {
+        return parameterTypes;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the {@code EXPLAIN} output, or null when explaining is off or hasn't
+     * finished yet.
+     */
+    public String getPlan() {
+        return plan;
+    }
+
+    void setPlan(String plan) {
+        this.plan = plan;
+    }
+
+    @Override
+    public String toString() {
+        return durationMillis + "ms rows=" + rows + " sql=" + sql + " params=" + parameterTypes;
+    }
+}
@@ -0,0 +1,144 @@
+package taxi.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Keeps the statements that ran longer than {@code db.slow.query.threshold.ms} in a ring
+ * buffer of the last {@code db.slow.query.history.size} entries and logs them with the
+ * types of their parameters and their row count. The parameter values are neither kept
+ * nor logged. With {@code db.slow.query.explain} the plan of a slow statement is fetched
+ * in the background on a connection of its own, so the caller doesn't wait for it; only
+ * that task sees the values. A negative threshold turns the log off.
+ */
+public class SlowQueryLog {
+    private static final Logger logger = LogManager.getLogger(SlowQueryLog.class);
+    private static final long THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            ApplicationProperties.getLong("db.slow.query.threshold.ms", 200));
+    private static final boolean EXPLAIN =
+            ApplicationProperties.getBoolean("db.slow.query.explain", false);
+    private static final int EXPLAIN_QUEUE_SIZE = 16;
+    private static final SlowQuery[] history =
+            new SlowQuery[Math.max(1, ApplicationProperties.getInt(
+                    "db.slow.query.history.size", 100))];
+    private static final LongAdder slowQueryCount = new LongAdder();
+    private static final ThreadPoolExecutor explainExecutor = createExplainExecutor();
+    private static int next;
+
+    public static boolean isEnabled() {
+        return THRESHOLD_NANOS >= 0;
+    }
+
+    public static long getSlowQueryCount() {
+        return slowQueryCount.sum();
+    }
+
+    /**
+     * Returns the recorded slow queries, most recent first.
+     */
+    public static List<SlowQuery> getEntries() {
+        List<SlowQuery> entries = new ArrayList<>(history.length);
+        synchronized (history) {
+            for (int i = 1; i <= history.length; i++) {
+                SlowQuery entry = history[Math.floorMod(next - i, history.length)];
+                if (entry == null) {
+                    break;
+                }
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    static boolean isSlow(long elapsedNanos) {
+        return isEnabled() && elapsedNanos >= THRESHOLD_NANOS;
+    }
+
+    static void record(String sql, List<Object> parameters, long elapsedNanos, long rows) {
+        SlowQuery entry = new SlowQuery(Instant.now(), sql, typesOf(parameters),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows);
+        synchronized (history) {
+            history[next] = entry;
+            next = (next + 1) % history.length;
+        }
+        slowQueryCount.increment();
+        logger.warn("Slow query {}", entry);
+        if (EXPLAIN && isExplainable(sql)) {
+            List<Object> values = new ArrayList<>(parameters);
+            try {
+                explainExecutor.execute(() -> explain(entry, values));
+            } catch (RejectedExecutionException e) {
+                logger.debug("Skipped EXPLAIN, too many slow queries are waiting for it");
+            }
+        }
+    }
+
+    private static List<String> typesOf(List<Object> parameters) {
+        List<String> types = new ArrayList<>(parameters.size());
+        for (Object parameter : parameters) {
+            types.add(parameter == null ? "null" : parameter.getClass().getSimpleName());
+        }
+        return Collections.unmodifiableList(types);
+    }
+
+    private static boolean isExplainable(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return statement.startsWith("select") || statement.startsWith("update")
+                || statement.startsWith("delete");
+    }
+
+    private static void explain(SlowQuery entry, List<Object> parameters) {
+        try (Connection connection = ConnectionUtil.getPhysicalConnection();
+                PreparedStatement statement =
+                        connection.prepareStatement("EXPLAIN " + entry.getSql())) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            entry.setPlan(formatPlan(statement.executeQuery()));
+            logger.warn("Plan of the slow query {}:\n{}", entry.getSql(), entry.getPlan());
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Can't explain the slow query {}", entry.getSql(), e);
+        }
+    }
+
+    private static String formatPlan(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        StringBuilder plan = new StringBuilder();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            plan.append(i > 1 ? "\t" : "").append(metaData.getColumnLabel(i));
+        }
+        while (resultSet.next()) {
+            plan.append('\n');
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                plan.append(i > 1 ? "\t" : "").append(resultSet.getString(i));
+            }
+        }
+        return plan.toString();
+    }
+
+    private static ThreadPoolExecutor createExplainExecutor() {
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explain");
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(EXPLAIN_QUEUE_SIZE), threadFactory);
+    }
+}
@@ -0,0 +1,211 @@
+package taxi.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * LRU cache of prepared statements of one physical connection. A statement is taken out
+ * of the cache while it's in use and put back when the caller closes it, so the same
+ * statement is never handed out twice at a time. A statement is put back with its
+ * parameters cleared and the settings a caller may have changed set to the JDBC defaults,
+ * so that they don't carry over into the next query. Evicted statements are closed.
+ */
+class StatementCache {
+    private static final Set<String> SETTINGS = Set.of("setMaxRows", "setLargeMaxRows",
+            "setFetchSize", "setFetchDirection", "setQueryTimeout", "setMaxFieldSize");
+    private final Connection physicalConnection;
+    private final int maxSize;
+    private final Map<Key, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+    private boolean closed;
+
+    StatementCache(Connection physicalConnection, int maxSize) {
+        this.physicalConnection = physicalConnection;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns a statement for {@code prepareStatement(sql)} or
+     * {@code prepareStatement(sql, autoGeneratedKeys)} calls, null for other overloads.
+     */
+    PreparedStatement prepareStatement(Connection owner, Object[] args) throws SQLException {
+        if (maxSize <= 0 || args == null || args.length == 0 || args.length > 2
+                || (args.length == 2 && !(args[1] instanceof Integer))) {
+            return null;
+        }
+        String sql = (String) args[0];
+        Key key = new Key(sql, args.length == 2 ? (Integer) args[1] : -1);
+        PreparedStatement statement;
+        synchronized (this) {
+            statement = statements.remove(key);
+        }
+        if (statement == null) {
+            statement = args.length == 2
+                    ? physicalConnection.prepareStatement(sql, (Integer) args[1])
+                    : physicalConnection.prepareStatement(sql);
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class},
+                new CachedStatementHandler(key, statement, owner));
+    }
+
+    synchronized void closeAll() {
+        closed = true;
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        statements.clear();
+    }
+
+    private void giveBack(Key key, PreparedStatement statement) {
+        List<PreparedStatement> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                evicted.add(statement);
+            } else {
+                PreparedStatement previous = statements.put(key, statement);
+                if (previous != null) {
+                    evicted.add(previous);
+                }
+                Iterator<PreparedStatement> iterator = statements.values().iterator();
+                while (statements.size() > maxSize && iterator.hasNext()) {
+                    evicted.add(iterator.next());
+                    iterator.remove();
+                }
+            }
+        }
+        evicted.forEach(this::closeQuietly);
+    }
+
+    private void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // the statement is discarded either way
+        }
+    }
+
+    private static class Key {
+        private final String sql;
+        private final int autoGeneratedKeys;
+
+        Key(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return autoGeneratedKeys == key.autoGeneratedKeys && sql.equals(key.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, autoGeneratedKeys);
+        }
+    }
+
+    private class CachedStatementHandler implements InvocationHandler {
+        private final Key key;
+        private final PreparedStatement statement;
+        private final Connection owner;
+        private final List<ResultSet> openResultSets = new ArrayList<>();
+        private final QueryRecorder recorder;
+        private boolean settingsChanged;
+        private boolean closed;
+
+        CachedStatementHandler(Key key, PreparedStatement statement, Connection owner) {
+            this.key = key;
+            this.statement = statement;
+            this.owner = owner;
+            this.recorder = SlowQueryLog.isEnabled() ? new QueryRecorder(key.sql) : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        recycle();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            if (SETTINGS.contains(method.getName())) {
+                settingsChanged = true;
+            }
+            Object result;
+            try {
+                result = recorder == null ? method.invoke(statement, args)
+                        : recorder.invoke(statement, method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet) {
+                openResultSets.add((ResultSet) result);
+            }
+            return result;
+        }
+
+        private void recycle() {
+            try {
+                for (ResultSet resultSet : openResultSets) {
+                    resultSet.close();
+                }
+                if (recorder != null) {
+                    recorder.finish();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+                if (settingsChanged) {
+                    resetSettings();
+                }
+                giveBack(key, statement);
+            } catch (SQLException e) {
+                closeQuietly(statement);
+            }
+        }
+
+        private void resetSettings() throws SQLException {
+            statement.setMaxRows(0);
+            statement.setFetchSize(0);
+            statement.setFetchDirection(ResultSet.FETCH_FORWARD);
+            statement.setQueryTimeout(0);
+            statement.setMaxFieldSize(0);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package taxi.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.exception.DataProcessingException;
+
+/**
+ * Binds one connection to the current thread for the duration of a unit of work, so that
+ * every {@link ConnectionUtil#getConnection()} call inside it shares a single commit.
+ * Nested calls join the outermost transaction; a failure in any of them rolls back the
+ * whole unit of work.
+ */
+public class TransactionManager {
+    private static final Logger logger = LogManager.getLogger(TransactionManager.class);
+    private static final ThreadLocal<Transaction> currentTransaction = new ThreadLocal<>();
+
+    public static <T> T inTransaction(Supplier<T> work) {
+        Transaction transaction = currentTransaction.get();
+        if (transaction != null) {
+            return joinTransaction(transaction, work);
+        }
+        transaction = new Transaction(ConnectionUtil.getPhysicalConnection());
+        currentTransaction.set(transaction);
+        T result;
+        try {
+            try {
+                result = work.get();
+            } catch (RuntimeException | Error e) {
+                transaction.rollback(e);
+                throw e;
+            }
+            transaction.commit();
+        } finally {
+            currentTransaction.remove();
+            transaction.close();
+        }
+        transaction.runAfterCommitActions();
+        return result;
+    }
+
+    public static void runInTransaction(Runnable work) {
+        inTransaction(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the action once the current transaction has committed, or right away when
+     * there is no transaction. The action is discarded if the transaction rolls back.
+     */
+    public static void afterCommit(Runnable action) {
+        Transaction transaction = currentTransaction.get();
+        if (transaction == null) {
+            action.run();
+            return;
+        }
+        transaction.addAfterCommitAction(action);
+    }
+
+    public static boolean isActive() {
+        return currentTransaction.get() != null;
+    }
+
+    static Connection getTransactionalConnection() {
+        Transaction transaction = currentTransaction.get();
+        return transaction == null ? null : transaction.getSharedConnection();
+    }
+
+    private static <T> T joinTransaction(Transaction transaction, Supplier<T> work) {
+        try {
+            return work.get();
+        } catch (RuntimeException | Error e) {
+            transaction.markRollbackOnly(e);
+            throw e;
+        }
+    }
+
+    private static class Transaction {
+        private final Connection connection;
+        private final Connection sharedConnection;
+        private final List<Runnable> afterCommitActions = new ArrayList<>();
+        private Throwable rollbackCause;
+
+        Transaction(Connection connection) {
+            this.connection = connection;
+            try {
+                connection.setAutoCommit(false);
+            } catch (SQLException e) {
+                close();
+                throw new DataProcessingException("Can't start a transaction", e);
+            }
+            this.sharedConnection = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close")) {
+                            return null;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        Connection getSharedConnection() {
+            return sharedConnection;
+        }
+
+        void addAfterCommitAction(Runnable action) {
+            afterCommitActions.add(action);
+        }
+
+        void runAfterCommitActions() {
+            for (Runnable action : afterCommitActions) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    logger.error("After-commit action failed", e);
+                }
+            }
+        }
+
+        void markRollbackOnly(Throwable cause) {
+            if (rollbackCause == null) {
+                rollbackCause = cause;
+            }
+        }
+
+        void commit() {
+            if (rollbackCause != null) {
+                rollback(rollbackCause);
+                throw new DataProcessingException("Transaction was rolled back because "
+                        + "a nested operation failed", rollbackCause);
+            }
+            try {
+                connection.commit();
+            } catch (SQLException e) {
+                rollback(e);
+                throw new DataProcessingException("Can't commit a transaction", e);
+            }
+        }
+
+        void rollback(Throwable cause) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                cause.addSuppressed(e);
+                logger.error("Can't roll back a transaction", e);
+            }
+        }
+
+        void close() {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.error("Can't return a transaction connection to the pool", e);
+            }
+        }
+    }
+}
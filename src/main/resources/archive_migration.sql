@@ -0,0 +1,18 @@
+-- Upgrades a database created before archival. Run once, then create the archive
+-- tables with the statements at the end of init_db.sql.
+-- Rows deleted before this migration start their retention window now.
+USE `taxi`;
+
+ALTER TABLE `drivers`
+    ADD COLUMN `deleted_at` DATETIME NULL DEFAULT NULL AFTER `is_deleted`,
+    ADD INDEX `IDX_drivers_deleted_at`(`deleted_at`) USING BTREE;
+ALTER TABLE `manufacturers`
+    ADD COLUMN `deleted_at` DATETIME NULL DEFAULT NULL AFTER `is_deleted`,
+    ADD INDEX `IDX_manufacturers_deleted_at`(`deleted_at`) USING BTREE;
+ALTER TABLE `cars`
+    ADD COLUMN `deleted_at` DATETIME NULL DEFAULT NULL AFTER `is_deleted`,
+    ADD INDEX `IDX_cars_deleted_at`(`deleted_at`) USING BTREE;
+
+UPDATE `drivers` SET `deleted_at` = CURRENT_TIMESTAMP WHERE `is_deleted` = b'1';
+UPDATE `manufacturers` SET `deleted_at` = CURRENT_TIMESTAMP WHERE `is_deleted` = b'1';
+UPDATE `cars` SET `deleted_at` = CURRENT_TIMESTAMP WHERE `is_deleted` = b'1';
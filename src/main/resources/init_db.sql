@@ -14,7 +14,11 @@ CREATE TABLE `drivers`  (
                             `login` VARCHAR(255) NOT NULL,
                             `password` VARCHAR(255) NOT NULL,
                             `is_deleted` BIT(1) NOT NULL DEFAULT b'0',
-                            PRIMARY KEY (`id`) USING BTREE
+                            `deleted_at` DATETIME NULL DEFAULT NULL,
+                            `active_login` VARCHAR(255) GENERATED ALWAYS AS (IF(`is_deleted` = b'1', NULL, `login`)) STORED,
+                            PRIMARY KEY (`id`) USING BTREE,
+                            UNIQUE INDEX `UK_active_login`(`active_login`) USING BTREE,
+                            INDEX `IDX_drivers_deleted_at`(`deleted_at`) USING BTREE
 ) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
 
 -- ----------------------------
@@ -26,7 +30,9 @@ CREATE TABLE `manufacturers`  (
                                   `name` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
                                   `country` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
                                   `is_deleted` BIT(1) NOT NULL DEFAULT b'0',
-                                  PRIMARY KEY (`id`) USING BTREE
+                                  `deleted_at` DATETIME NULL DEFAULT NULL,
+                                  PRIMARY KEY (`id`) USING BTREE,
+                                  INDEX `IDX_manufacturers_deleted_at`(`deleted_at`) USING BTREE
 ) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
 
 -- ----------------------------
@@ -38,8 +44,10 @@ CREATE TABLE `cars`  (
                          `model` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
                          `manufacturer_id` BIGINT(0) UNSIGNED NOT NULL,
                          `is_deleted` BIT(1) NOT NULL DEFAULT b'0',
+                         `deleted_at` DATETIME NULL DEFAULT NULL,
                          PRIMARY KEY (`id`) USING BTREE,
                          INDEX `FK_manufacturer_id`(`manufacturer_id`) USING BTREE,
+                         INDEX `IDX_cars_deleted_at`(`deleted_at`) USING BTREE,
                          CONSTRAINT `FK_manufacturer_id` FOREIGN KEY (`manufacturer_id`) REFERENCES `manufacturers` (`id`) ON DELETE RESTRICT ON UPDATE RESTRICT
 ) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
 
@@ -57,4 +65,47 @@ CREATE TABLE `cars_drivers`  (
                                  CONSTRAINT `driver_id` FOREIGN KEY (`driver_id`) REFERENCES `drivers` (`id`) ON DELETE RESTRICT ON UPDATE RESTRICT
 ) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
 
+-- ----------------------------
+-- Archive tables for rows soft-deleted longer than the retention window
+-- ----------------------------
+DROP TABLE IF EXISTS `drivers_archive`;
+CREATE TABLE `drivers_archive`  (
+                                    `id` BIGINT(0) UNSIGNED NOT NULL,
+                                    `name` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
+                                    `license_number` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
+                                    `login` VARCHAR(255) NOT NULL,
+                                    `password` VARCHAR(255) NOT NULL,
+                                    `deleted_at` DATETIME NULL DEFAULT NULL,
+                                    `archived_at` DATETIME NOT NULL,
+                                    PRIMARY KEY (`id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
+
+DROP TABLE IF EXISTS `manufacturers_archive`;
+CREATE TABLE `manufacturers_archive`  (
+                                          `id` BIGINT(0) UNSIGNED NOT NULL,
+                                          `name` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
+                                          `country` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
+                                          `deleted_at` DATETIME NULL DEFAULT NULL,
+                                          `archived_at` DATETIME NOT NULL,
+                                          PRIMARY KEY (`id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
+
+DROP TABLE IF EXISTS `cars_archive`;
+CREATE TABLE `cars_archive`  (
+                                 `id` BIGINT(0) UNSIGNED NOT NULL,
+                                 `model` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
+                                 `manufacturer_id` BIGINT(0) UNSIGNED NOT NULL,
+                                 `deleted_at` DATETIME NULL DEFAULT NULL,
+                                 `archived_at` DATETIME NOT NULL,
+                                 PRIMARY KEY (`id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
+
+DROP TABLE IF EXISTS `cars_drivers_archive`;
+CREATE TABLE `cars_drivers_archive`  (
+                                         `car_id` BIGINT(0) UNSIGNED NOT NULL,
+                                         `driver_id` BIGINT(0) UNSIGNED NOT NULL,
+                                         `archived_at` DATETIME NOT NULL,
+                                         PRIMARY KEY (`car_id`, `driver_id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
+
 SET FOREIGN_KEY_CHECKS = 1;
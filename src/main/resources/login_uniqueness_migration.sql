@@ -0,0 +1,11 @@
+-- Upgrades a database created before logins were unique among active drivers. Run once.
+-- The index can't be built while two active drivers share a login; list them with
+--   SELECT `login`, COUNT(*) FROM `drivers` WHERE `is_deleted` = b'0'
+--   GROUP BY `login` HAVING COUNT(*) > 1;
+-- and rename or delete all but one of each before running it.
+USE `taxi`;
+
+ALTER TABLE `drivers`
+    ADD COLUMN `active_login` VARCHAR(255)
+        GENERATED ALWAYS AS (IF(`is_deleted` = b'1', NULL, `login`)) STORED,
+    ADD UNIQUE INDEX `UK_active_login`(`active_login`) USING BTREE;
@@ -0,0 +1,49 @@
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<style>
+    <%@include file='/WEB-INF/views/css/table_dark.css' %>
+</style>
+<html>
+<head>
+    <title>Slow queries</title>
+</head>
+<body>
+<h1 class="table_dark">Slow queries:</h1>
+<c:if test="${not enabled}">
+    <p class="table_dark">The slow query log is off.</p>
+</c:if>
+<table border="1" class="table_dark">
+    <tr>
+        <th>Executed at</th>
+        <th>Duration, ms</th>
+        <th>Rows</th>
+        <th>SQL</th>
+        <th>Parameter types</th>
+        <th>Plan</th>
+    </tr>
+    <c:forEach var="query" items="${slowQueries}">
+        <tr>
+            <td>
+                <c:out value="${query.executedAt}"/>
+            </td>
+            <td>
+                <c:out value="${query.durationMillis}"/>
+            </td>
+            <td>
+                <c:out value="${query.rows}"/>
+            </td>
+            <td>
+                <c:out value="${query.sql}"/>
+            </td>
+            <td>
+                <c:out value="${query.parameterTypes}"/>
+            </td>
+            <td>
+                <pre><c:out value="${query.plan}"/></pre>
+            </td>
+        </tr>
+    </c:forEach>
+</table>
+<%@include file="/WEB-INF/views/header.jsp" %>
+</body>
+</html>
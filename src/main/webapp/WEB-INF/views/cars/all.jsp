@@ -9,6 +9,11 @@
 </head>
 <body>
 <h1 class="table_dark">All cars:</h1>
+<form method="get" class="table_dark" action="${pageContext.request.contextPath}/cars/search">
+    <input type="text" name="q" value="<c:out value="${query}"/>"
+           placeholder="Model, manufacturer or country">
+    <input type="submit" value="Search">
+</form>
 <table border="1" class="table_dark">
     <tr>
         <th>ID</th>
@@ -43,6 +48,13 @@
         </tr>
     </c:forEach>
 </table>
+<c:if test="${not empty nextPageUrl}">
+    <p class="table_dark"><a href="${nextPageUrl}">Next page</a></p>
+</c:if>
+<p class="table_dark">Export:
+    <a href="${pageContext.request.contextPath}/cars/export?format=csv">CSV</a>
+    <a href="${pageContext.request.contextPath}/cars/export?format=ndjson">NDJSON</a>
+</p>
 <%@include file="/WEB-INF/views/header.jsp" %>
 </body>
 </html>
@@ -33,6 +33,9 @@
         </tr>
     </c:forEach>
 </table>
+<c:if test="${not empty nextPageUrl}">
+    <p class="table_dark"><a href="${nextPageUrl}">Next page</a></p>
+</c:if>
 <%@include file="/WEB-INF/views/header.jsp" %>
 </body>
 </html>
@@ -0,0 +1,53 @@
+package taxi.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+
+class PaginationTest {
+    @Test
+    void setNextPage_plainPath_queryStringStarted() {
+        Map<String, Object> attributes = new HashMap<>();
+        Pagination.setNextPage(stubRequest(attributes), "/cars", List.of(1L, 7L), 2,
+                Function.identity());
+        assertEquals("/taxi/cars?after=7&limit=2", attributes.get("nextPageUrl"));
+    }
+
+    @Test
+    void setNextPage_pathWithQueryString_parametersAppended() {
+        Map<String, Object> attributes = new HashMap<>();
+        Pagination.setNextPage(stubRequest(attributes), "/cars/search?q=audi", List.of(3L),
+                1, Function.identity());
+        assertEquals("/taxi/cars/search?q=audi&after=3&limit=1",
+                attributes.get("nextPageUrl"));
+    }
+
+    @Test
+    void setNextPage_lastPage_noLink() {
+        Map<String, Object> attributes = new HashMap<>();
+        Pagination.setNextPage(stubRequest(attributes), "/cars", List.of(1L), 2,
+                Function.identity());
+        assertFalse(attributes.containsKey("nextPageUrl"));
+    }
+
+    private HttpServletRequest stubRequest(Map<String, Object> attributes) {
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                HttpServletRequest.class.getClassLoader(),
+                new Class<?>[] {HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getContextPath":
+                            return "/taxi";
+                        case "setAttribute":
+                            attributes.put((String) args[0], args[1]);
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
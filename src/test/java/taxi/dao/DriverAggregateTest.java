@@ -0,0 +1,44 @@
+package taxi.dao;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import taxi.model.Driver;
+
+class DriverAggregateTest {
+    @Test
+    void decode_severalDrivers_ok() {
+        List<Driver> drivers = new ArrayList<>();
+        assertTrue(DriverAggregate.decode("1\u001fAnn\u001f0022\u001fann\u001e"
+                + "12\u001fBob, Jr.\u001f\u001fbob\u001e", 2, drivers));
+        assertEquals(2, drivers.size());
+        assertEquals(1L, drivers.get(0).getId());
+        assertEquals("Ann", drivers.get(0).getName());
+        assertEquals("0022", drivers.get(0).getLicenseNumber());
+        assertEquals("ann", drivers.get(0).getLogin());
+        assertEquals(12L, drivers.get(1).getId());
+        assertEquals("Bob, Jr.", drivers.get(1).getName());
+        assertEquals("", drivers.get(1).getLicenseNumber());
+        assertEquals("bob", drivers.get(1).getLogin());
+    }
+
+    @Test
+    void decode_noDrivers_ok() {
+        assertTrue(DriverAggregate.decode(null, 0, new ArrayList<>()));
+    }
+
+    @Test
+    void decode_truncatedAggregate_notOk() {
+        assertFalse(DriverAggregate.decode("1\u001fAnn\u001f0022\u001fann\u001e2\u001fBo",
+                2, new ArrayList<>()));
+        assertFalse(DriverAggregate.decode("1\u001fAnn\u001f0022\u001fann\u001e", 2,
+                new ArrayList<>()));
+    }
+
+    @Test
+    void decode_truncatedInsideLastField_notOk() {
+        assertFalse(DriverAggregate.decode("1\u001fAnn\u001f0022\u001fann\u001e"
+                + "2\u001fBob\u001f0033\u001fbo", 2, new ArrayList<>()));
+    }
+}
@@ -0,0 +1,25 @@
+package taxi.event;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class EntityVersionsTest {
+    @Test
+    void getTag_changedType_newTag() {
+        String carsTag = EntityVersions.getTag(EntityType.CAR, EntityType.MANUFACTURER);
+        String driversTag = EntityVersions.getTag(EntityType.DRIVER);
+        long version = EntityVersions.getVersion(EntityType.MANUFACTURER);
+        EntityEvents.publish(EntityType.MANUFACTURER, 1L);
+        assertEquals(version + 1, EntityVersions.getVersion(EntityType.MANUFACTURER));
+        assertNotEquals(carsTag, EntityVersions.getTag(EntityType.CAR, EntityType.MANUFACTURER));
+        assertEquals(driversTag, EntityVersions.getTag(EntityType.DRIVER));
+    }
+
+    @Test
+    void getLastModified_latestOfTypes_ok() {
+        long before = System.currentTimeMillis();
+        EntityEvents.publish(EntityType.CAR_ASSIGNMENT, 1L);
+        assertTrue(EntityVersions.getLastModified(EntityType.CAR, EntityType.CAR_ASSIGNMENT)
+                >= before);
+    }
+}
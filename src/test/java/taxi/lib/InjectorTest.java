@@ -0,0 +1,33 @@
+package taxi.lib;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import taxi.lib.fixture.CyclicComponents;
+
+class InjectorTest {
+    private static final Injector injector = Injector.getInstance("taxi.lib.fixture");
+
+    @Test
+    void getInstance_samePackage_ok() {
+        assertSame(injector, Injector.getInstance("taxi.lib.fixture"));
+    }
+
+    @Test
+    void getInstance_singleton_ok() {
+        Object first = injector.getInstance(CyclicComponents.StandaloneService.class);
+        Object second = injector.getInstance(CyclicComponents.StandaloneService.class);
+        assertSame(first, second);
+    }
+
+    @Test
+    void getInstance_circularDependency_notOk() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                injector.getInstance(CyclicComponents.FirstService.class));
+        assertTrue(exception.getMessage().startsWith("Circular dependency: "));
+    }
+
+    @Test
+    void getInstance_notComponent_notOk() {
+        assertThrows(RuntimeException.class, () -> injector.getInstance(Runnable.class));
+    }
+}
@@ -0,0 +1,31 @@
+package taxi.lib.fixture;
+
+import taxi.lib.Inject;
+import taxi.lib.Service;
+
+public class CyclicComponents {
+    public interface FirstService {
+    }
+
+    public interface SecondService {
+    }
+
+    public interface StandaloneService {
+    }
+
+    @Service
+    public static class FirstServiceImpl implements FirstService {
+        @Inject
+        private SecondService secondService;
+    }
+
+    @Service
+    public static class SecondServiceImpl implements SecondService {
+        @Inject
+        private FirstService firstService;
+    }
+
+    @Service
+    public static class StandaloneServiceImpl implements StandaloneService {
+    }
+}
@@ -0,0 +1,34 @@
+package taxi.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+    @Test
+    void bucketOf_boundsContainValue_ok() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 1000, 123456789, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = Histogram.bucketOf(value);
+            assertTrue(Histogram.lowerBoundOf(bucket) <= value, "lower bound of " + value);
+            assertTrue(Histogram.upperBoundOf(bucket) >= value, "upper bound of " + value);
+        }
+    }
+
+    @Test
+    void getQuantile_uniformValues_withinBucketError() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 10000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(10000, histogram.getCount());
+        assertEquals(10000, histogram.getMax());
+        assertEquals(5000, histogram.getQuantile(0.5), 5000 * 0.07);
+        assertEquals(9900, histogram.getQuantile(0.99), 9900 * 0.07);
+        assertEquals(10000, histogram.getQuantile(1));
+    }
+
+    @Test
+    void getQuantile_empty_zero() {
+        assertEquals(0, new Histogram().getQuantile(0.99));
+    }
+}
@@ -0,0 +1,68 @@
+package taxi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.Manufacturer;
+import taxi.util.ConnectionUtil;
+
+class ArchiveServiceImplTest {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final ArchiveService archiveService =
+            (ArchiveService) injector.getInstance(ArchiveService.class);
+    private static final CarService carService =
+            (CarService) injector.getInstance(CarService.class);
+    private static final DriverService driverService =
+            (DriverService) injector.getInstance(DriverService.class);
+    private static final ManufacturerService manufacturerService =
+            (ManufacturerService) injector.getInstance(ManufacturerService.class);
+
+    @Test
+    void archive_deletedRows_ok() throws SQLException {
+        Manufacturer skoda = manufacturerService.create(new Manufacturer("Skoda", "Czechia"));
+        Driver olga = driverService.create(new Driver("Olga", "0501", "olga.archive", "5010"));
+        Car octavia = new Car("Octavia", skoda);
+        octavia.setDrivers(List.of(olga));
+        carService.create(octavia);
+        carService.delete(octavia.getId());
+        driverService.delete(olga.getId());
+        manufacturerService.delete(skoda.getId());
+        assertTrue(archiveService.archive(-1) >= 3);
+        assertTrue(isArchived("cars", octavia.getId()));
+        assertTrue(isArchived("drivers", olga.getId()));
+        assertTrue(isArchived("manufacturers", skoda.getId()));
+    }
+
+    @Test
+    void archive_manufacturerWithLiveCar_notArchived() throws SQLException {
+        Manufacturer seat = manufacturerService.create(new Manufacturer("Seat", "Spain"));
+        carService.create(new Car("Leon", seat));
+        manufacturerService.delete(seat.getId());
+        archiveService.archive(-1);
+        assertFalse(isArchived("manufacturers", seat.getId()));
+    }
+
+    @Test
+    void archive_recentlyDeleted_notArchived() throws SQLException {
+        Driver petr = driverService.create(new Driver("Petr", "0502", "petr.archive", "5020"));
+        driverService.delete(petr.getId());
+        archiveService.archive(1);
+        assertFalse(isArchived("drivers", petr.getId()));
+    }
+
+    private boolean isArchived(String table, Long id) throws SQLException {
+        String query = "SELECT 1 FROM " + table + "_archive a WHERE a.id = ?"
+                + " AND NOT EXISTS (SELECT 1 FROM " + table + " t WHERE t.id = a.id)";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, id);
+            return statement.executeQuery().next();
+        }
+    }
+}
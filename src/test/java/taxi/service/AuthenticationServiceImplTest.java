@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import taxi.exception.AuthenticationException;
 import taxi.lib.Injector;
 import taxi.model.Driver;
+import taxi.util.PasswordHasher;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -36,6 +37,13 @@ class AuthenticationServiceImplTest {
         assertEquals(denDriver.getId(), driver.getId());
     }
 
+    @Test
+    void login_passwordStoredHashed_ok() {
+        String storedPassword = driverService.get(denDriver.getId()).getPassword();
+        assertTrue(PasswordHasher.isEncoded(storedPassword));
+        assertNotEquals("1300", storedPassword);
+    }
+
     @Test
     void login_wrongLogin_notOk() {
         String login = "DEN";
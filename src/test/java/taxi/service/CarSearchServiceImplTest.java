@@ -0,0 +1,115 @@
+package taxi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Manufacturer;
+import taxi.util.ConnectionUtil;
+
+class CarSearchServiceImplTest {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final CarSearchService carSearchService =
+            (CarSearchService) injector.getInstance(CarSearchService.class);
+    private static final CarService carService =
+            (CarService) injector.getInstance(CarService.class);
+    private static final ManufacturerService manufacturerService =
+            (ManufacturerService) injector.getInstance(ManufacturerService.class);
+
+    @Test
+    void search_byModelManufacturerAndCountry_ok() {
+        String country = uniqueWord();
+        Manufacturer skoda = manufacturerService.create(new Manufacturer("Skoda", country));
+        Car octavia = carService.create(new Car("Octavia Combi", skoda));
+        Car fabia = carService.create(new Car("Fabia", skoda));
+        assertEquals(List.of(octavia.getId(), fabia.getId()),
+                ids(carSearchService.search("skoda " + country, null, 10)));
+        assertEquals(List.of(octavia.getId()),
+                ids(carSearchService.search("Octavia-SKODA " + country, null, 10)));
+        assertEquals("Skoda", carSearchService.search("combi " + country, null, 10)
+                .get(0).getManufacturer().getName());
+        assertTrue(carSearchService.search("octavia fabia", null, 10).stream()
+                .noneMatch(car -> car.getManufacturer().getId().equals(skoda.getId())));
+        assertTrue(carSearchService.search(" ", null, 10).isEmpty());
+    }
+
+    @Test
+    void search_afterId_nextPage() {
+        String country = uniqueWord();
+        Manufacturer lada = manufacturerService.create(new Manufacturer("Lada", country));
+        Car niva = carService.create(new Car("Niva", lada));
+        Car vesta = carService.create(new Car("Vesta", lada));
+        Car granta = carService.create(new Car("Granta", lada));
+        assertEquals(List.of(niva.getId(), vesta.getId()),
+                ids(carSearchService.search("lada " + country, null, 2)));
+        assertEquals(List.of(granta.getId()),
+                ids(carSearchService.search("lada " + country, vesta.getId(), 2)));
+    }
+
+    @Test
+    void search_carDeletedSinceIndexed_pageStillFull() throws SQLException {
+        String country = uniqueWord();
+        Manufacturer zaz = manufacturerService.create(new Manufacturer("Zaz", country));
+        Car zaporozhets = carService.create(new Car("Zaporozhets", zaz));
+        Car tavria = carService.create(new Car("Tavria", zaz));
+        Car slavuta = carService.create(new Car("Slavuta", zaz));
+        assertEquals(3, carSearchService.search("zaz " + country, null, 10).size());
+        deleteWithoutEvent(tavria.getId());
+        assertEquals(List.of(zaporozhets.getId(), slavuta.getId()),
+                ids(carSearchService.search("zaz " + country, null, 2)));
+    }
+
+    @Test
+    void search_afterManufacturerUpdateAndCarDelete_inSync() {
+        String country = uniqueWord();
+        Manufacturer tatra = manufacturerService.create(new Manufacturer("Tatra", country));
+        Car t87 = carService.create(new Car("T87", tatra));
+        assertEquals(List.of(t87.getId()),
+                ids(carSearchService.search("tatra t87 " + country, null, 10)));
+        tatra.setName("Praga");
+        manufacturerService.update(tatra);
+        assertTrue(carSearchService.search("tatra " + country, null, 10).isEmpty());
+        assertEquals(List.of(t87.getId()),
+                ids(carSearchService.search("praga " + country, null, 10)));
+        carService.delete(t87.getId());
+        assertTrue(carSearchService.search("praga " + country, null, 10).isEmpty());
+    }
+
+    @Test
+    void search_afterRebuild_ok() {
+        String model = uniqueWord();
+        Manufacturer saab = manufacturerService.create(new Manufacturer("Saab", "Sweden"));
+        Car sonett = carService.create(new Car(model, saab));
+        carSearchService.rebuild();
+        assertEquals(List.of(sonett.getId()), ids(carSearchService.search(model, null, 10)));
+    }
+
+    /**
+     * Deletes the car behind the index's back, like a delete the index hasn't caught up
+     * with yet.
+     */
+    private static void deleteWithoutEvent(Long carId) throws SQLException {
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(
+                        "UPDATE cars SET is_deleted = TRUE WHERE id = ?")) {
+            statement.setLong(1, carId);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * A word no earlier run has stored, so the tests don't depend on a clean database.
+     */
+    private static String uniqueWord() {
+        return "w" + Long.toString(System.nanoTime(), Character.MAX_RADIX);
+    }
+
+    private static List<Long> ids(List<Car> cars) {
+        return cars.stream().map(Car::getId).collect(Collectors.toList());
+    }
+}
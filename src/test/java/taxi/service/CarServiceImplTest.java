@@ -142,6 +142,31 @@ class CarServiceImplTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void getPage_carsAfterId_ok() {
+        Car first = carService.create(new Car("Legend", honda));
+        Car second = carService.create(new Car("Accord", honda));
+        List<Car> page = carService.getPage(first.getId(), 1);
+        assertEquals(List.of(second), page);
+    }
+
+    @Test
+    void forEach_carsWithDrivers_ok() {
+        Car cherokee = new Car("Cherokee", jeep);
+        List<Driver> drivers = new ArrayList<>();
+        drivers.add(driverService.create(new Driver("Kyle", "0901", "kyle", "1090")));
+        drivers.add(driverService.create(new Driver("Liam", "0902", "liam", "2090")));
+        cherokee.setDrivers(drivers);
+        Long id = carService.create(cherokee).getId();
+        List<Car> streamedCars = new ArrayList<>();
+        carService.forEach(streamedCars::add);
+        Car streamed = streamedCars.stream()
+                .filter(c -> c.getId().equals(id))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, streamed.getDrivers().size());
+    }
+
     @Test
     void update_car_ok() {
         Car crx = new Car("CR-X", honda);
@@ -350,4 +375,14 @@ class CarServiceImplTest {
         List<Car> actual = carService.getAllByDriver(ivan.getId());
         assertEquals(expected, actual);
     }
+
+    @Test
+    void create_sameDriverTwice_notOk() {
+        Car outback = new Car("Outback", subaru);
+        outback.getDrivers().add(bart);
+        outback.getDrivers().add(bart);
+        assertThrows(DataProcessingException.class, () -> {
+            carService.create(outback);
+        });
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package taxi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import taxi.lib.Injector;
+import taxi.model.Driver;
+
+class DriverSearchServiceImplTest {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final DriverSearchService driverSearchService =
+            (DriverSearchService) injector.getInstance(DriverSearchService.class);
+    private static final DriverService driverService =
+            (DriverService) injector.getInstance(DriverService.class);
+
+    @Test
+    void search_byNameLoginAndLicense_ok() {
+        Driver zoe = driverService.create(
+                new Driver("Zoe Quimby", "QX-7781", "zquimby", "7781"));
+        assertEquals(zoe.getId(), driverSearchService.search("quim", 10).get(0).getId());
+        assertEquals(zoe.getId(), driverSearchService.search("zqui", 10).get(0).getId());
+        assertEquals(zoe.getId(), driverSearchService.search("qx77", 10).get(0).getId());
+        assertEquals(zoe.getId(), driverSearchService.search("zoe q", 10).get(0).getId());
+        assertNull(driverSearchService.search("zoe q", 10).get(0).getPassword());
+        assertTrue(driverSearchService.search("zoe xylophone", 10).isEmpty());
+    }
+
+    @Test
+    void search_afterUpdateAndDelete_inSync() {
+        Driver yuri = driverService.create(new Driver("Yuri Vostok", "0777", "yvostok", "7770"));
+        assertEquals(1, driverSearchService.search("vostok", 10).size());
+        yuri.setName("Yuri Soyuz");
+        driverService.update(yuri);
+        assertTrue(driverSearchService.search("vostok", 10).isEmpty());
+        assertEquals(1, driverSearchService.search("soyuz", 10).size());
+        driverService.delete(yuri.getId());
+        assertTrue(driverSearchService.search("soyuz", 10).isEmpty());
+    }
+
+    @Test
+    void search_commonAndRareTerm_intersection() {
+        Driver rare = driverService.create(
+                new Driver("Common Zyxwvu", "0999", "czyxwvu", "9990"));
+        driverService.create(new Driver("Common Other", "0998", "cother", "8990"));
+        List<Driver> drivers = driverSearchService.search("common zyxw", 10);
+        assertEquals(1, drivers.size());
+        assertEquals(rare.getId(), drivers.get(0).getId());
+    }
+
+    @Test
+    void search_afterRebuild_ok() {
+        driverService.create(new Driver("Wanda Xerxes", "0888", "wxerxes", "8880"));
+        driverSearchService.rebuild();
+        List<Driver> drivers = driverSearchService.search("XERX", 10);
+        assertEquals(1, drivers.size());
+        assertEquals("wxerxes", drivers.get(0).getLogin());
+    }
+}
@@ -9,6 +9,7 @@ import taxi.exception.DataProcessingException;
 import taxi.exception.LoginDuplicationException;
 import taxi.lib.Injector;
 import taxi.model.Driver;
+import taxi.util.PasswordHasher;
 
 class DriverServiceImplTest {
     private static final Injector injector = Injector.getInstance("taxi");
@@ -133,6 +134,22 @@ class DriverServiceImplTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void getPage_driversAfterId_ok() {
+        Driver first = driverService.create(new Driver("Peter", "0201", "peter", "1020"));
+        Driver second = driverService.create(new Driver("Paul", "0202", "paul", "2020"));
+        List<Driver> page = driverService.getPage(first.getId(), 1);
+        assertEquals(List.of(second), page);
+    }
+
+    @Test
+    void forEach_allDrivers_ok() {
+        Driver lucy = driverService.create(new Driver("Lucy", "0203", "lucy", "3020"));
+        List<Driver> streamedDrivers = new ArrayList<>();
+        driverService.forEach(streamedDrivers::add);
+        assertTrue(streamedDrivers.contains(lucy));
+    }
+
     @Test
     void update_driver_ok() {
         Driver will = new Driver("William", "0110", "will", "0110");
@@ -272,4 +289,23 @@ class DriverServiceImplTest {
     void findByLogin_nullLogin_ok() {
         assertTrue(driverService.findByLogin(null).isEmpty());
     }
+
+    @Test
+    void create_passwordLookingLikeHash_hashedAnyway() {
+        String planted = PasswordHasher.hash("known", 1000);
+        Driver eve = driverService.create(new Driver("Eve", "0066", "eve", planted));
+        String stored = driverService.get(eve.getId()).getPassword();
+        assertNotEquals(planted, stored);
+        assertTrue(PasswordHasher.verify(planted, stored));
+    }
+
+    @Test
+    void update_storedHashPassedBack_keptAsIs() {
+        Driver gus = driverService.create(new Driver("Gus", "0067", "gus", "7600"));
+        String stored = gus.getPassword();
+        gus.setName("Gustav");
+        driverService.update(gus);
+        assertEquals(stored, driverService.get(gus.getId()).getPassword());
+        assertTrue(PasswordHasher.verify("7600", stored));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package taxi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.jupiter.api.Test;
+import taxi.event.EntityType;
+import taxi.lib.Injector;
+import taxi.model.ImportReport;
+
+class ImportServiceImplTest {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final ImportService importService =
+            (ImportService) injector.getInstance(ImportService.class);
+    private static final DriverService driverService =
+            (DriverService) injector.getInstance(DriverService.class);
+
+    @Test
+    void importCsv_drivers_ok() throws IOException {
+        String login = "import" + System.nanoTime();
+        ImportReport report = importService.importCsv(EntityType.DRIVER, new StringReader(
+                "Login,Name,License_Number,Password\n"
+                        + login + "a,Ann,1001,secret\n"
+                        + login + "b,Bob,1002,secret\n"
+                        + login + "a,Ann again,1003,secret\n"
+                        + login + "c,,1004,secret\n"));
+        assertEquals(4, report.getRowsRead());
+        assertEquals(2, report.getRowsImported());
+        assertEquals(2, report.getRowsFailed());
+        assertEquals(4, report.getErrors().get(0).getLine());
+        assertEquals("Bob", driverService.findByLogin(login + "b").get().getName());
+    }
+
+    @Test
+    void importCsv_existingLogin_notOk() throws IOException {
+        String login = "import" + System.nanoTime();
+        importService.importCsv(EntityType.DRIVER, new StringReader(
+                "name,license_number,login,password\nAnn,1001," + login + ",secret\n"));
+        ImportReport report = importService.importCsv(EntityType.DRIVER, new StringReader(
+                "name,license_number,login,password\nAnn,1001," + login + ",secret\n"));
+        assertEquals(0, report.getRowsImported());
+        assertEquals(1, report.getRowsFailed());
+    }
+
+    @Test
+    void importCsv_carsByManufacturerName_ok() throws IOException {
+        String name = "Maker" + System.nanoTime();
+        importService.importCsv(EntityType.MANUFACTURER, new StringReader(
+                "name,country\n" + name + ",Japan\n" + name + ",Korea\n"));
+        ImportReport report = importService.importCsv(EntityType.CAR, new StringReader(
+                "model,manufacturer,manufacturer_country\n"
+                        + "Alpha," + name + ",Japan\n"
+                        + "Beta," + name + ",\n"
+                        + "Gamma,Unknown" + name + ",\n"));
+        assertEquals(1, report.getRowsImported());
+        assertEquals(2, report.getRowsFailed());
+    }
+
+    @Test
+    void importCsv_missingColumn_notOk() {
+        assertThrows(IllegalArgumentException.class, () ->
+                importService.importCsv(EntityType.MANUFACTURER,
+                        new StringReader("name\nToyota\n")));
+    }
+}
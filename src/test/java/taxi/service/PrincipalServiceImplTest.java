@@ -0,0 +1,80 @@
+package taxi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.Manufacturer;
+import taxi.model.Principal;
+
+class PrincipalServiceImplTest {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final PrincipalService principalService =
+            (PrincipalService) injector.getInstance(PrincipalService.class);
+    private static final DriverService driverService =
+            (DriverService) injector.getInstance(DriverService.class);
+    private static final CarService carService =
+            (CarService) injector.getInstance(CarService.class);
+    private static final ManufacturerService manufacturerService = (ManufacturerService) injector
+            .getInstance(ManufacturerService.class);
+    private static Manufacturer skoda;
+
+    @BeforeAll
+    static void beforeAll() {
+        skoda = manufacturerService.create(new Manufacturer("Skoda", "Czech Republic"));
+    }
+
+    @Test
+    void getPrincipal_existingDriver_ok() {
+        Driver tom = driverService.create(new Driver("Tom", "0771", "tom", "1770"));
+        Principal principal = principalService.getPrincipal(tom.getId()).orElseThrow();
+        assertEquals(tom.getId(), principal.getDriver().getId());
+        assertNull(principal.getDriver().getPassword());
+        assertTrue(principal.getCars().isEmpty());
+    }
+
+    @Test
+    void getPrincipal_deletedDriver_notOk() {
+        Driver rob = driverService.create(new Driver("Robert", "0772", "rob", "2770"));
+        principalService.getPrincipal(rob.getId());
+        driverService.delete(rob.getId());
+        assertTrue(principalService.getPrincipal(rob.getId()).isEmpty());
+    }
+
+    @Test
+    void getPrincipal_driverAddedToCar_ok() {
+        Driver nicole = driverService.create(new Driver("Nicole", "0773", "nicole", "3770"));
+        Car octavia = carService.create(new Car("Octavia", skoda));
+        assertTrue(principalService.getPrincipal(nicole.getId()).orElseThrow()
+                .getCars().isEmpty());
+        carService.addDriverToCar(nicole, octavia);
+        Principal principal = principalService.getPrincipal(nicole.getId()).orElseThrow();
+        assertEquals(1, principal.getCars().size());
+        assertTrue(principal.hasCar(octavia.getId()));
+    }
+
+    @Test
+    void getPrincipal_carUpdated_ok() {
+        Driver milan = driverService.create(new Driver("Milan", "0774", "milan", "4770"));
+        Car fabia = new Car("Fabia", skoda);
+        fabia.getDrivers().add(milan);
+        carService.create(fabia);
+        principalService.getPrincipal(milan.getId());
+        fabia.setModel("Fabia Combi");
+        carService.update(fabia);
+        Principal principal = principalService.getPrincipal(milan.getId()).orElseThrow();
+        assertEquals("Fabia Combi", principal.getCars().get(0).getModel());
+    }
+
+    @Test
+    void getPrincipal_driverUpdated_ok() {
+        Driver lena = driverService.create(new Driver("Lena", "0775", "lena", "5770"));
+        principalService.getPrincipal(lena.getId());
+        lena.setName("Olena");
+        driverService.update(lena);
+        assertEquals("Olena",
+                principalService.getPrincipal(lena.getId()).orElseThrow().getDriver().getName());
+    }
+}
@@ -0,0 +1,37 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+    @Test
+    void mightContain_putValues_ok() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("driver" + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("driver" + i));
+        }
+    }
+
+    @Test
+    void mightContain_newValues_ok() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("driver" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("stranger" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "Too many false positives: " + falsePositives);
+    }
+
+    @Test
+    void create_invalidProbability_notOk() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1.5));
+    }
+}
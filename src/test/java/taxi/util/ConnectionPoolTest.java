@@ -0,0 +1,249 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConnectionPoolTest {
+    private static final String URL = "jdbc:pooltest:";
+    private static final AtomicInteger openedConnections = new AtomicInteger();
+    private static final AtomicInteger closedConnections = new AtomicInteger();
+    private static final AtomicBoolean connectionsValid = new AtomicBoolean();
+    private static final AtomicInteger preparedStatements = new AtomicInteger();
+    private static final List<String> statementSettings = new CopyOnWriteArrayList<>();
+    private static Driver driver;
+    private ConnectionPool pool;
+
+    @BeforeAll
+    static void beforeAll() throws SQLException {
+        driver = (Driver) Proxy.newProxyInstance(Driver.class.getClassLoader(),
+                new Class<?>[] {Driver.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "acceptsURL":
+                            return ((String) args[0]).startsWith(URL);
+                        case "connect":
+                            openedConnections.incrementAndGet();
+                            return stubConnection();
+                        default:
+                            return null;
+                    }
+                });
+        DriverManager.registerDriver(driver);
+    }
+
+    @AfterAll
+    static void afterAll() throws SQLException {
+        DriverManager.deregisterDriver(driver);
+    }
+
+    @BeforeEach
+    void setUp() {
+        openedConnections.set(0);
+        closedConnections.set(0);
+        connectionsValid.set(true);
+        preparedStatements.set(0);
+        statementSettings.clear();
+        pool = new ConnectionPool(URL, new Properties(), 2, 100, 60000, 60000, 1, 60000, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void getConnection_returnedConnectionReused_ok() throws SQLException {
+        pool.getConnection().close();
+        pool.getConnection().close();
+        assertEquals(1, openedConnections.get());
+    }
+
+    @Test
+    void getConnection_returnedConnectionBecomesIdle_ok() throws SQLException {
+        Connection connection = pool.getConnection();
+        assertEquals(1, pool.getActiveConnections());
+        assertEquals(0, pool.getIdleConnections());
+        connection.close();
+        assertEquals(0, pool.getActiveConnections());
+        assertEquals(1, pool.getIdleConnections());
+        assertEquals(1, pool.getBorrowedCount());
+    }
+
+    @Test
+    void getConnection_poolExhausted_notOk() throws SQLException {
+        pool.getConnection();
+        pool.getConnection();
+        assertThrows(SQLException.class, () -> pool.getConnection());
+    }
+
+    @Test
+    void getConnection_poolExhausted_timesOut() throws SQLException {
+        pool.getConnection();
+        pool.getConnection();
+        long start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, () -> pool.getConnection());
+        assertTrue(System.nanoTime() - start >= 100_000_000L);
+        assertEquals(1, pool.getTimeoutCount());
+        assertEquals(2, openedConnections.get());
+    }
+
+    @Test
+    void getConnection_connectionReturnedWhileWaiting_ok() throws Exception {
+        ConnectionPool waitingPool =
+                new ConnectionPool(URL, new Properties(), 1, 10000, 60000, 60000, 1, 60000, 10);
+        try {
+            Connection connection = waitingPool.getConnection();
+            Thread releaser = new Thread(() -> {
+                try {
+                    Thread.sleep(50);
+                    connection.close();
+                } catch (InterruptedException | SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            releaser.start();
+            waitingPool.getConnection().close();
+            releaser.join();
+            assertEquals(1, openedConnections.get());
+            assertEquals(0, waitingPool.getTimeoutCount());
+        } finally {
+            waitingPool.close();
+        }
+    }
+
+    @Test
+    void getConnection_invalidIdleConnection_replaced() throws Exception {
+        pool.getConnection().close();
+        connectionsValid.set(false);
+        Thread.sleep(600);
+        pool.getConnection().close();
+        assertEquals(2, openedConnections.get());
+        assertEquals(1, closedConnections.get());
+    }
+
+    @Test
+    void getConnection_brokenConnection_notReused() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            assertThrows(SQLException.class, connection::createStatement);
+        }
+        assertEquals(1, closedConnections.get());
+        assertEquals(0, pool.getIdleConnections());
+        pool.getConnection().close();
+        assertEquals(2, openedConnections.get());
+    }
+
+    @Test
+    void getConnection_expiredConnection_replaced() throws Exception {
+        ConnectionPool expiringPool =
+                new ConnectionPool(URL, new Properties(), 2, 100, 60000, 1, 1, 60000, 10);
+        try {
+            expiringPool.getConnection().close();
+            Thread.sleep(5);
+            expiringPool.getConnection().close();
+            assertEquals(2, openedConnections.get());
+            assertEquals(1, closedConnections.get());
+        } finally {
+            expiringPool.close();
+        }
+    }
+
+    @Test
+    void getConnection_closedTwice_ok() throws SQLException {
+        Connection connection = pool.getConnection();
+        connection.close();
+        connection.close();
+        assertEquals(0, pool.getActiveConnections());
+        assertThrows(SQLException.class, () -> connection.prepareStatement("SELECT 1"));
+    }
+
+    @Test
+    void prepareStatement_sameSqlReused_ok() throws SQLException {
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = pool.getConnection();
+                    PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                statement.setLong(1, i);
+            }
+        }
+        assertEquals(1, preparedStatements.get());
+    }
+
+    @Test
+    void prepareStatement_statementInUse_ok() throws SQLException {
+        try (Connection connection = pool.getConnection();
+                PreparedStatement first = connection.prepareStatement("SELECT 1");
+                PreparedStatement second = connection.prepareStatement("SELECT 1")) {
+            assertNotSame(first, second);
+        }
+        assertEquals(2, preparedStatements.get());
+    }
+
+    @Test
+    void prepareStatement_changedSettingsResetOnReturn_ok() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                statement.setMaxRows(5);
+                statement.setQueryTimeout(3);
+            }
+            assertTrue(statementSettings.contains("setMaxRows(0)"));
+            assertTrue(statementSettings.contains("setQueryTimeout(0)"));
+            assertTrue(statementSettings.contains("setFetchSize(0)"));
+            statementSettings.clear();
+            try (PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                statement.setLong(1, 1);
+            }
+            assertEquals(List.of(), statementSettings);
+        }
+        assertEquals(1, preparedStatements.get());
+    }
+
+    private static Connection stubConnection() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "prepareStatement":
+                            preparedStatements.incrementAndGet();
+                            return stubStatement();
+                        case "createStatement":
+                            throw new SQLException("Communications link failure", "08S01");
+                        case "close":
+                            closedConnections.incrementAndGet();
+                            return null;
+                        case "isValid":
+                            return connectionsValid.get();
+                        case "getAutoCommit":
+                            return true;
+                        case "isReadOnly":
+                        case "isClosed":
+                            return false;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static PreparedStatement stubStatement() {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args.length == 1) {
+                        statementSettings.add(method.getName() + "(" + args[0] + ")");
+                    }
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,31 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+    @Test
+    void next_quotedFields_ok() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "name,country\r\n\"Toyota, Inc.\",\"Ja\"\"pan\"\r\n\"multi\nline\",\n\nKia,Korea"));
+        assertEquals(List.of("name", "country"), reader.next());
+        assertEquals(1, reader.getLineNumber());
+        assertEquals(List.of("Toyota, Inc.", "Ja\"pan"), reader.next());
+        assertEquals(2, reader.getLineNumber());
+        assertEquals(List.of("multi\nline", ""), reader.next());
+        assertEquals(3, reader.getLineNumber());
+        assertEquals(List.of("Kia", "Korea"), reader.next());
+        assertEquals(6, reader.getLineNumber());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_unterminatedQuote_notOk() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("model\n\"Prius"));
+        reader.next();
+        assertThrows(IOException.class, reader::next);
+    }
+}
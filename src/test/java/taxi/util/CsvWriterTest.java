@@ -0,0 +1,26 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class CsvWriterTest {
+    @Test
+    void writeRecord_specialCharacters_quoted() throws IOException {
+        StringWriter out = new StringWriter();
+        new CsvWriter(out).writeRecord(1L, "Toyota, Inc.", "say \"hi\"", null, "a\nb");
+        assertEquals("1,\"Toyota, Inc.\",\"say \"\"hi\"\"\",,\"a\nb\"\r\n", out.toString());
+    }
+
+    @Test
+    void writeRecord_readBack_ok() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        writer.writeRecord("x,\"y\"", "", "z\r\n");
+        assertEquals(Arrays.asList("x,\"y\"", "", "z\r\n"),
+                new CsvReader(new StringReader(out.toString())).next());
+    }
+}
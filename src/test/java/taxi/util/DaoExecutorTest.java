@@ -0,0 +1,76 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class DaoExecutorTest {
+    @Test
+    void submit_taskRunsOffCallerThread_ok()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Thread caller = Thread.currentThread();
+        AtomicBoolean ranElsewhere = new AtomicBoolean();
+        DaoExecutor.submit(() -> ranElsewhere.set(Thread.currentThread() != caller))
+                .get(5, TimeUnit.SECONDS);
+        assertTrue(ranElsewhere.get());
+    }
+
+    @Test
+    void submit_finishedOrCancelledTasks_releaseTheirSlots()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        int pendingBefore = awaitPendingTasks(0);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocked = DaoExecutor.submit(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Future<?> cancelled = DaoExecutor.submit(() -> { });
+        cancelled.cancel(false);
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+        assertEquals(pendingBefore, awaitPendingTasks(pendingBefore));
+    }
+
+    @Test
+    void submit_cancelledWhileRunning_keepsSlotUntilItReturns()
+            throws InterruptedException {
+        int pendingBefore = awaitPendingTasks(0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> running = DaoExecutor.submit(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        running.cancel(false);
+        assertEquals(pendingBefore + 1, DaoExecutor.getPendingTaskCount());
+        release.countDown();
+        assertEquals(pendingBefore, awaitPendingTasks(pendingBefore));
+    }
+
+    /**
+     * A cancelled task gives its slot back only when its body returns, which happens
+     * after the caller has stopped waiting for it.
+     */
+    private int awaitPendingTasks(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        int pending = DaoExecutor.getPendingTaskCount();
+        while (pending != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            pending = DaoExecutor.getPendingTaskCount();
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,83 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import taxi.metrics.MetricsRegistry;
+
+class ExpiringCacheTest {
+    private final List<ExpiringCache<?, ?>> caches = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        caches.forEach(ExpiringCache::unregister);
+    }
+
+    @Test
+    void get_cachedValue_ok() {
+        ExpiringCache<Long, String> cache = newCache(10, 60000);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, id -> "value" + loads.incrementAndGet());
+        String actual = cache.get(1L, id -> "value" + loads.incrementAndGet());
+        assertEquals("value1", actual);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void get_expiredValue_ok() {
+        ExpiringCache<Long, String> cache = newCache(10, 0);
+        cache.get(1L, id -> "old");
+        assertEquals("new", cache.get(1L, id -> "new"));
+    }
+
+    @Test
+    void get_invalidatedValue_ok() {
+        ExpiringCache<Long, String> cache = newCache(10, 60000);
+        cache.get(1L, id -> "old");
+        cache.invalidate(1L);
+        assertEquals("new", cache.get(1L, id -> "new"));
+    }
+
+    @Test
+    void get_valueLoadedDuringInvalidation_notCached() {
+        ExpiringCache<Long, String> cache = newCache(10, 60000);
+        cache.get(1L, id -> {
+            cache.invalidateAll();
+            return "stale";
+        });
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_fullCache_evictsRarelyUsed() {
+        ExpiringCache<Long, String> cache = newCache(2, 60000);
+        cache.get(1L, id -> "popular");
+        cache.get(1L, id -> "popular");
+        cache.get(1L, id -> "popular");
+        cache.get(2L, id -> "rare");
+        cache.get(3L, id -> "new");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals("popular", cache.get(1L, id -> "reloaded"));
+    }
+
+    @Test
+    void unregister_removesCacheAndGauges() {
+        ExpiringCache<Long, String> cache = new ExpiringCache<>("unregistered", 10, 60000);
+        assertTrue(ExpiringCache.getCaches().contains(cache));
+        assertTrue(MetricsRegistry.scrape().contains("cache=\"unregistered\""));
+        cache.unregister();
+        assertFalse(ExpiringCache.getCaches().contains(cache));
+        assertFalse(MetricsRegistry.scrape().contains("cache=\"unregistered\""));
+    }
+
+    private <K, V> ExpiringCache<K, V> newCache(int maxSize, long timeToLiveMillis) {
+        ExpiringCache<K, V> cache = new ExpiringCache<>("test", maxSize, timeToLiveMillis);
+        caches.add(cache);
+        return cache;
+    }
+}
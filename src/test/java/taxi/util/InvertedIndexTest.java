@@ -0,0 +1,55 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class InvertedIndexTest {
+    @Test
+    void findAll_severalTokens_intersectionInIdOrder() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 100; id >= 1; id--) {
+            index.add("car", id);
+            if (id % 2 == 0) {
+                index.add("even", id);
+            }
+            if (id % 3 == 0) {
+                index.add("triple", id);
+            }
+        }
+        assertArrayEquals(new long[] {6, 12, 18, 24, 30, 36, 42, 48, 54, 60, 66, 72, 78, 84,
+                90, 96}, index.findAll(List.of("car", "even", "triple")));
+        assertEquals(100, index.findAll(List.of("car")).length);
+    }
+
+    @Test
+    void findAll_unknownOrEmpty_noIds() {
+        InvertedIndex index = new InvertedIndex();
+        index.add("audi", 1);
+        assertEquals(0, index.findAll(List.of("audi", "bmw")).length);
+        assertEquals(0, index.findAll(List.of()).length);
+    }
+
+    @Test
+    void add_sameIdTwice_keptOnce() {
+        InvertedIndex index = new InvertedIndex();
+        index.add("audi", 1);
+        index.add("audi", 1);
+        assertArrayEquals(new long[] {1}, index.findAll(List.of("audi")));
+    }
+
+    @Test
+    void remove_lastId_dropsToken() {
+        InvertedIndex index = new InvertedIndex();
+        index.add("audi", 1);
+        index.add("audi", 2);
+        index.add("germany", 1);
+        index.remove("audi", 1);
+        assertArrayEquals(new long[] {2}, index.findAll(List.of("audi")));
+        index.remove("germany", 1);
+        index.remove("germany", 5);
+        assertEquals(1, index.size());
+        index.clear();
+        assertEquals(0, index.size());
+    }
+}
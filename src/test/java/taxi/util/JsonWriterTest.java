@@ -0,0 +1,29 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.jupiter.api.Test;
+
+class JsonWriterTest {
+    @Test
+    void write_nestedValues_ok() throws IOException {
+        StringWriter out = new StringWriter();
+        new JsonWriter(out).beginObject()
+                .name("items").beginArray()
+                .beginObject().name("id").value(1L).name("model").value("Prius").endObject()
+                .beginObject().name("id").value(2L).name("model").nullValue().endObject()
+                .endArray()
+                .name("next").value(false)
+                .endObject();
+        assertEquals("{\"items\":[{\"id\":1,\"model\":\"Prius\"},{\"id\":2,\"model\":null}],"
+                + "\"next\":false}", out.toString());
+    }
+
+    @Test
+    void value_specialCharacters_escaped() throws IOException {
+        StringWriter out = new StringWriter();
+        new JsonWriter(out).beginArray().value("a\"b\\c\nd\u0001\u2028").endArray();
+        assertEquals("[\"a\\\"b\\\\c\\nd\\u0001\\u2028\"]", out.toString());
+    }
+}
@@ -0,0 +1,40 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class PasswordHasherTest {
+    @Test
+    void hash_samePassword_saltedDifferently_ok() {
+        String first = PasswordHasher.hash("1300");
+        String second = PasswordHasher.hash("1300");
+        assertNotEquals(first, second);
+        assertTrue(PasswordHasher.isEncoded(first));
+        assertFalse(PasswordHasher.needsRehash(first));
+    }
+
+    @Test
+    void verify_correctPassword_ok() {
+        assertTrue(PasswordHasher.verify("1300", PasswordHasher.hash("1300")));
+    }
+
+    @Test
+    void verify_wrongPassword_notOk() {
+        assertFalse(PasswordHasher.verify("0013", PasswordHasher.hash("1300")));
+        assertFalse(PasswordHasher.verify(null, PasswordHasher.hash("1300")));
+    }
+
+    @Test
+    void verify_plainTextPassword_ok() {
+        assertTrue(PasswordHasher.verify("1300", "1300"));
+        assertFalse(PasswordHasher.verify("0013", "1300"));
+        assertTrue(PasswordHasher.needsRehash("1300"));
+    }
+
+    @Test
+    void needsRehash_otherIterations_ok() {
+        String hash = PasswordHasher.hash("1300");
+        String cheaperHash = hash.replaceFirst("\\$\\d+\\$", "\\$1000\\$");
+        assertTrue(PasswordHasher.needsRehash(cheaperHash));
+    }
+}
@@ -0,0 +1,74 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class PrefixIndexTest {
+    @Test
+    void find_prefix_exactKeyFirstThenKeyOrder() {
+        PrefixIndex index = new PrefixIndex();
+        index.add("annette", 3);
+        index.add("anna", 2);
+        index.add("ann", 1);
+        index.add("bob", 4);
+        List<Long> ids = new ArrayList<>();
+        index.find("ann", 10, ids);
+        assertEquals(List.of(1L, 2L, 3L), ids);
+    }
+
+    @Test
+    void find_limit_stopsEarly() {
+        PrefixIndex index = new PrefixIndex();
+        for (long id = 1; id <= 100; id++) {
+            index.add("driver" + id, id);
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        index.find("driver", 5, ids);
+        assertEquals(5, ids.size());
+    }
+
+    @Test
+    void remove_key_notFoundAnyMore() {
+        PrefixIndex index = new PrefixIndex();
+        index.add("kate", 1);
+        index.add("kate", 2);
+        index.add("katerina", 3);
+        index.remove("kate", 1);
+        index.remove("katerina", 3);
+        index.remove("unknown", 4);
+        List<Long> ids = new ArrayList<>();
+        index.find("k", 10, ids);
+        assertEquals(List.of(2L), ids);
+        assertEquals(1, index.size());
+        assertEquals(1, index.count("ka"));
+        assertEquals(0, index.count("katerina"));
+    }
+
+    @Test
+    void count_prefix_idsBelowIt() {
+        PrefixIndex index = new PrefixIndex();
+        index.add("ann", 1);
+        index.add("anna", 2);
+        index.add("anna", 2);
+        index.add("bob", 3);
+        assertEquals(2, index.count("an"));
+        assertEquals(3, index.count(""));
+        assertEquals(0, index.count("c"));
+    }
+
+    @Test
+    void find_filter_keepsLookingUntilLimit() {
+        PrefixIndex index = new PrefixIndex();
+        for (long id = 1; id <= 100; id++) {
+            index.add("driver" + id, id);
+        }
+        List<Long> ids = new ArrayList<>();
+        index.find("driver", 3, id -> id % 10 == 0, ids);
+        assertEquals(3, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id % 10 == 0));
+    }
+}
@@ -0,0 +1,75 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SlowQueryLogTest {
+    private static final long SLOW_QUERY_MILLIS = 250;
+
+    @Test
+    void record_slowQuery_sqlParameterTypesAndRowsKept() throws SQLException {
+        String sql = "SELECT * FROM cars WHERE manufacturer_id = ? AND model = ?";
+        PreparedStatement statement = QueryRecorder.record(stubStatement(3), sql);
+        statement.setLong(1, 7L);
+        statement.setString(2, "slow");
+        ResultSet resultSet = statement.executeQuery();
+        while (resultSet.next()) {
+            assertEquals("row", resultSet.getString(1));
+        }
+        statement.close();
+        SlowQuery slowQuery = SlowQueryLog.getEntries().get(0);
+        assertEquals(sql, slowQuery.getSql());
+        assertEquals(List.of("Long", "String"), slowQuery.getParameterTypes());
+        assertFalse(slowQuery.toString().contains("slow"));
+        assertEquals(3, slowQuery.getRows());
+        assertTrue(slowQuery.getDurationMillis() >= SLOW_QUERY_MILLIS);
+    }
+
+    @Test
+    void record_fastQuery_notKept() throws SQLException {
+        String sql = "SELECT * FROM cars WHERE id = ?";
+        PreparedStatement statement = QueryRecorder.record(stubStatement(0), sql);
+        statement.setLong(1, 1L);
+        statement.executeUpdate();
+        statement.close();
+        assertTrue(SlowQueryLog.getEntries().stream()
+                .noneMatch(slowQuery -> slowQuery.getSql().equals(sql)));
+    }
+
+    private PreparedStatement stubStatement(int rows) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "executeQuery":
+                            Thread.sleep(SLOW_QUERY_MILLIS);
+                            return stubResultSet(rows);
+                        case "executeUpdate":
+                            return 1;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private ResultSet stubResultSet(int rows) {
+        AtomicInteger remaining = new AtomicInteger(rows);
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return remaining.getAndDecrement() > 0;
+                        case "getString":
+                            return "row";
+                        default:
+                            return null;
+                    }
+                });
+    }
+}